@@ -7,39 +7,71 @@ import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingStateFilter;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerRequestEngine;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl) {
-        super(serverUrl + API_PREFIX);
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         ServerRequestEngine engine) {
+        super(serverUrl + API_PREFIX, engine);
     }
 
-    public ResponseEntity<Object> getBooking(long bookingId, long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getBooking(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> createNewBooking(BookingCreateDto bookingCreateDto, long bookerId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getAvailability(long itemId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> params = Map.of(
+                "itemId", itemId,
+                "start", start,
+                "end", end
+        );
+        return get("/availability?itemId={itemId}&start={start}&end={end}", null, params);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> createNewBooking(BookingCreateDto bookingCreateDto, long bookerId) {
         return post("", bookerId, bookingCreateDto);
     }
 
-    public ResponseEntity<Object> approveBooking(long bookingId, long userId, boolean approved) {
+    public CompletableFuture<ResponseEntity<byte[]>> approveBooking(long bookingId, long userId, boolean approved) {
         Map<String, Object> params = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, params, null);
     }
 
 
-    public ResponseEntity<Object> getBookerBookings(long userId, BookingStateFilter state) {
-        Map<String, Object> params = Map.of("state", state);
-        return get("?state={state}", userId, params);
+    public CompletableFuture<ResponseEntity<byte[]>> getBookerBookings(long userId, BookingStateFilter state,
+                                                    LocalDateTime afterStart, Long afterId, int size) {
+        return getPage("", userId, state, afterStart, afterId, size);
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> getOwnerBookings(long ownerId, BookingStateFilter state,
+                                                   LocalDateTime afterStart, Long afterId, int size) {
+        return getPage("/owner", ownerId, state, afterStart, afterId, size);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long ownerId, BookingStateFilter state) {
-        Map<String, Object> params = Map.of("state", state);
-        return get("/owner?state={state}", ownerId, params);
+    // параметры курсора передаются на сервер, только если заданы
+    private CompletableFuture<ResponseEntity<byte[]>> getPage(String path, long userId, BookingStateFilter state,
+                                           LocalDateTime afterStart, Long afterId, int size) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("state", state);
+        params.put("size", size);
+        StringBuilder query = new StringBuilder(path).append("?state={state}&size={size}");
+        if (afterStart != null) {
+            params.put("afterStart", afterStart);
+            query.append("&afterStart={afterStart}");
+        }
+        if (afterId != null) {
+            params.put("afterId", afterId);
+            query.append("&afterId={afterId}");
+        }
+        return get(query.toString(), userId, params);
     }
 }
@@ -1,16 +1,21 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingStateFilter;
 
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -20,33 +25,48 @@ public class BookingController {
 	private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
 	@PostMapping
-	public ResponseEntity<Object> createNewBooking(@RequestHeader(USER_ID_HEADER) @Positive long bookerId,
-												   @RequestBody @Valid BookingCreateDto bookingCreateDto) {
+	public CompletableFuture<ResponseEntity<byte[]>> createNewBooking(@RequestHeader(USER_ID_HEADER) @Positive long bookerId,
+																	  @RequestBody @Valid BookingCreateDto bookingCreateDto) {
 		return bookingClient.createNewBooking(bookingCreateDto, bookerId);
 	}
 
+	@GetMapping("/availability")
+	public CompletableFuture<ResponseEntity<byte[]>> getAvailability(@RequestParam @Positive long itemId,
+																	 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+																	 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+		return bookingClient.getAvailability(itemId, start, end);
+	}
+
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@PathVariable long bookingId,
-											 @RequestHeader(USER_ID_HEADER) long userId) {
+	public CompletableFuture<ResponseEntity<byte[]>> getBooking(@PathVariable long bookingId,
+																@RequestHeader(USER_ID_HEADER) long userId) {
 		return bookingClient.getBooking(bookingId, userId);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> approveBooking(@PathVariable @Positive long bookingId,
-												 @RequestHeader(USER_ID_HEADER) @Positive long userId,
-												 @RequestParam boolean approved) {
+	public CompletableFuture<ResponseEntity<byte[]>> approveBooking(@PathVariable @Positive long bookingId,
+																	@RequestHeader(USER_ID_HEADER) @Positive long userId,
+																	@RequestParam boolean approved) {
 		return bookingClient.approveBooking(bookingId, userId, approved);
 	}
 
 	@GetMapping
-	public ResponseEntity<Object> getBookerBookings(@RequestHeader(USER_ID_HEADER) @Positive long userId,
-													@RequestParam(defaultValue = "ALL") BookingStateFilter state) {
-		return bookingClient.getBookerBookings(userId, state);
+	public CompletableFuture<ResponseEntity<byte[]>> getBookerBookings(@RequestHeader(USER_ID_HEADER) @Positive long userId,
+																	   @RequestParam(defaultValue = "ALL") BookingStateFilter state,
+																	   @RequestParam(required = false)
+																	   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+																	   @RequestParam(required = false) @Positive Long afterId,
+																	   @RequestParam(defaultValue = "10") @Positive @Max(100) int size) {
+		return bookingClient.getBookerBookings(userId, state, afterStart, afterId, size);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getOwnerBookings(@RequestHeader(USER_ID_HEADER) @Positive long ownerId,
-												   @RequestParam(defaultValue = "ALL") BookingStateFilter state) {
-		return bookingClient.getOwnerBookings(ownerId, state);
+	public CompletableFuture<ResponseEntity<byte[]>> getOwnerBookings(@RequestHeader(USER_ID_HEADER) @Positive long ownerId,
+																	  @RequestParam(defaultValue = "ALL") BookingStateFilter state,
+																	  @RequestParam(required = false)
+																	  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+																	  @RequestParam(required = false) @Positive Long afterId,
+																	  @RequestParam(defaultValue = "10") @Positive @Max(100) int size) {
+		return bookingClient.getOwnerBookings(ownerId, state, afterStart, afterId, size);
 	}
 }
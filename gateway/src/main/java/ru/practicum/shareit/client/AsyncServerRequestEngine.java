@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Неблокирующая передача запросов через WebClient: поток gateway освобождается сразу после отправки запроса,
+ * ответ сервера обрабатывается потоками ввода-вывода HTTP-клиента
+ */
+public class AsyncServerRequestEngine implements ServerRequestEngine {
+    private final WebClient webClient;
+
+    public AsyncServerRequestEngine(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uri)
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+
+        return requestWithBody
+                // ответы с ошибкой не преобразуются в исключения, тело передаётся клиенту как есть
+                .exchangeToMono(response -> response.toEntity(byte[].class))
+                .map(GatewayResponses::of)
+                .toFuture();
+    }
+}
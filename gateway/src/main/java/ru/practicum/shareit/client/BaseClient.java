@@ -1,115 +1,107 @@
 package ru.practicum.shareit.client;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilderFactory;
 
 public class BaseClient {
-    protected final RestTemplate rest; // синхронный клиент для выполнения HTTP-запросов к RESTful-сервисам
+    private final UriBuilderFactory uriBuilderFactory;
+    private final ServerRequestEngine engine; // синхронный или неблокирующий, см. ServerClientConfig
 
-    public BaseClient(String apiPrefix) {
-        rest = new RestTemplateBuilder()
-                // добавление базового URI ко всем запросам
-                .uriTemplateHandler(new DefaultUriBuilderFactory(apiPrefix))
-                // это класс из Spring Framework, который позволяет использовать Apache HttpClient (httpclient5)
-                // в качестве "движка" для выполнения HTTP-запросов в RestTemplate.
-                // "мост" между RestTemplate и Apache HttpClient.
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build();
+    public BaseClient(String apiPrefix, ServerRequestEngine engine) {
+        // добавление базового URI ко всем запросам
+        this.uriBuilderFactory = new DefaultUriBuilderFactory(apiPrefix);
+        this.engine = engine;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<byte[]>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<byte[]>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<byte[]>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * If-None-Match клиента передаётся серверу, ответ 304 Not Modified возвращается клиенту как есть
+     */
+    protected CompletableFuture<ResponseEntity<byte[]>> getIfNoneMatch(String path, Long userId, @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return send(HttpMethod.GET, path, null, headers, null);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<byte[]>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<byte[]>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        // обёртка, которая позволяет передавать тело запроса (body) и заголовки HTTP (headers) в одном объекте
-        // параметр <T> указывает тип тела запроса, объекты автоматически сериализуются/десериализуются в JSON
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        // расширение класса HttpEntity, которое добавляет возможность управления HTTP-статусом (кодом ответа)
-        ResponseEntity<Object> shareitServerResponse;
-
-        try { // выполнение http запроса, результат возвращается в объекте ResponseEntity
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            // базовый класс исключений в Spring, который выбрасывается при получении ошибочного HTTP-статуса (4xx или 5xx) при выполнении HTTP-запросов
-            return ResponseEntity.status(e.getStatusCode())
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .body(e.getResponseBodyAsString());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+    private <T> CompletableFuture<ResponseEntity<byte[]>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return send(method, path, parameters, defaultHeaders(userId), body);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<byte[]>> send(HttpMethod method, String path, @Nullable Map<String, Object> parameters, HttpHeaders headers, @Nullable T body) {
+        URI uri = parameters != null ? uriBuilderFactory.expand(path, parameters) : uriBuilderFactory.expand(path);
+        // тело запроса сериализуется в JSON, тело ответа возвращается байтами без разбора
+        return engine.exchange(method, uri, headers, body);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -121,18 +113,4 @@ public class BaseClient {
         }
         return headers;
     }
-
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
-    }
 }
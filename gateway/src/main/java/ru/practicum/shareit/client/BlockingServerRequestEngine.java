@@ -0,0 +1,45 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Синхронная передача запросов через RestTemplate: поток gateway занят до получения ответа сервера,
+ * возвращается уже завершённый CompletableFuture
+ */
+public class BlockingServerRequestEngine implements ServerRequestEngine {
+    private final RestTemplate rest; // синхронный клиент для выполнения HTTP-запросов к RESTful-сервисам
+
+    public BlockingServerRequestEngine(ClientHttpRequestFactory requestFactory) {
+        rest = new RestTemplateBuilder()
+                // HttpComponentsClientHttpRequestFactory из ServerClientConfig - "мост" между RestTemplate
+                // и Apache HttpClient (httpclient5) с общим для всех клиентов пулом соединений
+                .requestFactory(() -> requestFactory)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        // обёртка, которая позволяет передавать тело запроса (body) и заголовки HTTP (headers) в одном объекте
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+        try { // выполнение http запроса, результат возвращается в объекте ResponseEntity
+            ResponseEntity<byte[]> response = rest.exchange(uri, method, requestEntity, byte[].class);
+            return CompletableFuture.completedFuture(GatewayResponses.of(response));
+        } catch (HttpStatusCodeException e) {
+            // базовый класс исключений в Spring, который выбрасывается при получении ошибочного HTTP-статуса (4xx или 5xx) при выполнении HTTP-запросов
+            return CompletableFuture.completedFuture(
+                    GatewayResponses.of(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray()));
+        }
+    }
+}
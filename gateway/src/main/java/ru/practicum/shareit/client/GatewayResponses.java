@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.util.Set;
+
+/**
+ * Преобразование ответов сервера shareit в ответы gateway, общее для всех движков.
+ * Тело ответа передаётся клиенту байтами без разбора JSON, заголовки соединения и дату gateway выставляет сам
+ */
+final class GatewayResponses {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            "keep-alive",
+            // gateway выставляет собственную дату ответа, в том числе для ответов из кеша
+            HttpHeaders.DATE.toLowerCase());
+
+    private GatewayResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(ResponseEntity<byte[]> response) {
+        return of(response.getStatusCode(), response.getHeaders(), response.getBody());
+    }
+
+    static ResponseEntity<byte[]> of(HttpStatusCode status, @Nullable HttpHeaders serverHeaders, @Nullable byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                    headers.addAll(name, values);
+                }
+            });
+        }
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status).headers(headers);
+
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
+        }
+
+        return responseBuilder.build();
+    }
+}
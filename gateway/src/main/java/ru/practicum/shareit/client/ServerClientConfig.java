@@ -0,0 +1,131 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.HttpComponentsClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Движок передачи запросов на сервер shareit, выбирается свойством shareit-server.client.engine.
+ * Оба движка используют один пул соединений Apache HttpClient на все клиенты сервера,
+ * метрики пула публикуются в Micrometer как httpcomponents.httpclient.pool.*
+ */
+@Configuration
+@EnableConfigurationProperties(ServerClientProperties.class)
+public class ServerClientConfig {
+    private static final String ENGINE_PROPERTY = "shareit-server.client.engine";
+    private static final String METRICS_CLIENT_NAME = "shareit-server";
+
+    @Configuration
+    @ConditionalOnProperty(name = ENGINE_PROPERTY, havingValue = "blocking", matchIfMissing = true)
+    static class Blocking {
+
+        @Bean(destroyMethod = "close")
+        public PoolingHttpClientConnectionManager serverConnectionManager(ServerClientProperties properties) {
+            return PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(properties.getMaxConnections())
+                    .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                    .setDefaultConnectionConfig(connectionConfig(properties))
+                    .build();
+        }
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                    ServerClientProperties properties) {
+            return HttpClients.custom()
+                    .setConnectionManager(serverConnectionManager)
+                    .setDefaultRequestConfig(requestConfig(properties))
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.of(properties.getMaxIdleTime()))
+                    .build();
+        }
+
+        @Bean
+        public ServerRequestEngine serverRequestEngine(CloseableHttpClient serverHttpClient) {
+            return new BlockingServerRequestEngine(new HttpComponentsClientHttpRequestFactory(serverHttpClient));
+        }
+
+        @Bean
+        public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, METRICS_CLIENT_NAME);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = ENGINE_PROPERTY, havingValue = "async")
+    static class Async {
+
+        @Bean(destroyMethod = "close")
+        public PoolingAsyncClientConnectionManager serverConnectionManager(ServerClientProperties properties) {
+            return PoolingAsyncClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(properties.getMaxConnections())
+                    .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                    .setDefaultConnectionConfig(connectionConfig(properties))
+                    .build();
+        }
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpAsyncClient serverHttpClient(PoolingAsyncClientConnectionManager serverConnectionManager,
+                                                         ServerClientProperties properties) {
+            CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                    .setConnectionManager(serverConnectionManager)
+                    .setDefaultRequestConfig(requestConfig(properties))
+                    // все соединения с сервером обслуживает небольшое фиксированное число потоков
+                    .setIOReactorConfig(IOReactorConfig.custom()
+                            .setIoThreadCount(properties.getIoThreads())
+                            .build())
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.of(properties.getMaxIdleTime()))
+                    .build();
+            client.start();
+            return client;
+        }
+
+        @Bean
+        public ServerRequestEngine serverRequestEngine(CloseableHttpAsyncClient serverHttpClient,
+                                                       WebClient.Builder webClientBuilder) {
+            return new AsyncServerRequestEngine(webClientBuilder
+                    .clientConnector(new HttpComponentsClientHttpConnector(serverHttpClient))
+                    .build());
+        }
+
+        @Bean
+        public MeterBinder serverConnectionPoolMetrics(PoolingAsyncClientConnectionManager serverConnectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, METRICS_CLIENT_NAME);
+        }
+    }
+
+    private static ConnectionConfig connectionConfig(ServerClientProperties properties) {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                .setSocketTimeout(Timeout.of(properties.getResponseTimeout()))
+                .build();
+    }
+
+    private static RequestConfig requestConfig(ServerClientProperties properties) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                // используется, если сервер не прислал заголовок Keep-Alive
+                .setConnectionKeepAlive(TimeValue.of(properties.getKeepAlive()))
+                .build();
+    }
+}
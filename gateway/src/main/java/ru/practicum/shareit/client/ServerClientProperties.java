@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула HTTP-соединений gateway с сервером shareit
+ */
+@ConfigurationProperties("shareit-server.client")
+@Getter
+@Setter
+public class ServerClientProperties {
+    // движок передачи запросов на сервер
+    private Engine engine = Engine.BLOCKING;
+    // потоков ввода-вывода неблокирующего движка
+    private int ioThreads = 2;
+    // всего соединений в пуле
+    private int maxConnections = 200;
+    // соединений к одному хосту; gateway обращается к единственному серверу, поэтому лимит близок к общему
+    private int maxConnectionsPerRoute = 200;
+    // установка TCP-соединения
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    // ожидание свободного соединения из пула
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    // ожидание ответа сервера
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    // время жизни соединения, если сервер не прислал Keep-Alive
+    private Duration keepAlive = Duration.ofSeconds(30);
+    // простаивающие дольше соединения закрываются фоновым потоком
+    private Duration maxIdleTime = Duration.ofMinutes(1);
+
+    public enum Engine {
+        // RestTemplate, поток обработки запроса gateway ждёт ответа сервера
+        BLOCKING,
+        // WebClient, поток обработки запроса освобождается до получения ответа сервера
+        ASYNC
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * "Движок" передачи запросов gateway на сервер shareit.
+ * Ответ сервера с ошибкой (4xx, 5xx) не считается исключением и возвращается клиенту gateway как есть
+ */
+public interface ServerRequestEngine {
+    CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                       @Nullable Object body);
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Успешные ответы сервера на GET отдельных ресурсов (/items/{id}, /users/{id}, /requests/{id}) по пути ресурса.
+ * Число ответов в памяти и время их хранения ограничены. Изменения, прошедшие через этот gateway,
+ * удаляют затронутые ответы из кеша; изменения через другие экземпляры gateway видны после истечения ttl.
+ * Метрики публикуются в Micrometer как cache.* с тегом cache=server-responses
+ */
+@Component
+public class ServerResponseCache implements MeterBinder {
+    private static final String CACHE_NAME = "server-responses";
+
+    private final Cache<String, ResponseEntity<byte[]>> responses;
+    // увеличивается при каждом удалении из кеша, ответ, загрузка которого началась раньше, не кешируется
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ServerResponseCache(@Value("${shareit-server.response-cache.max-size:10000}") long maxSize,
+                               @Value("${shareit-server.response-cache.ttl:30s}") Duration ttl) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * ответ из кеша или от сервера; в кеш попадают только ответы 200 OK.
+     * Если ETag ответа из кеша совпадает с If-None-Match клиента, возвращается 304 Not Modified без тела
+     */
+    public CompletableFuture<ResponseEntity<byte[]>> get(String path, @Nullable String ifNoneMatch,
+                                                         Supplier<CompletableFuture<ResponseEntity<byte[]>>> loader) {
+        ResponseEntity<byte[]> cached = responses.getIfPresent(path);
+        if (cached != null) {
+            String etag = cached.getHeaders().getETag();
+            if (etag != null && ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+                return CompletableFuture.completedFuture(
+                        ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+            }
+            return CompletableFuture.completedFuture(cached);
+        }
+        long invalidationsBefore = invalidations.get();
+        return loader.get().thenApply(response -> {
+            if (response.getStatusCode().value() == 200 && invalidations.get() == invalidationsBefore) {
+                responses.put(path, response);
+            }
+            return response;
+        });
+    }
+
+    /**
+     * выполнить изменяющий запрос, удалив затронутые ответы до его отправки и после завершения;
+     * путь, оканчивающийся на "/", удаляет все ответы с этим префиксом
+     */
+    public <T> CompletableFuture<T> invalidating(Supplier<CompletableFuture<T>> change, String... paths) {
+        invalidate(paths);
+        return change.get().whenComplete((response, e) -> invalidate(paths));
+    }
+
+    // If-None-Match может содержать несколько ETag через запятую или *
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.strip();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void invalidate(String... paths) {
+        invalidations.incrementAndGet();
+        for (String path : paths) {
+            if (path.endsWith("/")) {
+                responses.asMap().keySet().removeIf(key -> key.startsWith(path));
+            } else {
+                responses.invalidate(path);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", responses, cache -> cache.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .description("Доля запросов, ответ на которые взят из кеша")
+                .register(registry);
+    }
+}
@@ -5,46 +5,100 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerRequestEngine;
+import ru.practicum.shareit.client.ServerResponseCache;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    // item входят в ответы на запросы вещей
+    private static final String REQUESTS = "/requests/";
+
+    private final ServerResponseCache responseCache;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl) {
-        super(serverUrl + API_PREFIX);
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      ServerRequestEngine engine,
+                      ServerResponseCache responseCache) {
+        super(serverUrl + API_PREFIX, engine);
+        this.responseCache = responseCache;
+    }
+
+    public CompletableFuture<ResponseEntity<byte[]>> createNewItem(ItemCreateDto itemCreateDto, long userId) {
+        if (itemCreateDto.getRequestId() == null) {
+            return post("", userId, itemCreateDto);
+        }
+        return responseCache.invalidating(() -> post("", userId, itemCreateDto),
+                REQUESTS + itemCreateDto.getRequestId());
     }
 
-    public ResponseEntity<Object> createNewItem(ItemCreateDto itemCreateDto, long userId) {
-        return post("", userId, itemCreateDto);
+    /**
+     * сохранить часть импорта одним запросом к серверу
+     */
+    public CompletableFuture<ResponseEntity<byte[]>> importItems(List<ItemCreateDto> items, long userId) {
+        if (items.stream().allMatch(item -> item.getRequestId() == null)) {
+            return post("/batch", userId, items);
+        }
+        return responseCache.invalidating(() -> post("/batch", userId, items), REQUESTS);
     }
 
-    public ResponseEntity<Object> getItem(long itemId) {
-        return get("/" + itemId);
+    public CompletableFuture<ResponseEntity<byte[]>> getItem(long itemId, String ifNoneMatch) {
+        return responseCache.get(API_PREFIX + "/" + itemId, ifNoneMatch,
+                () -> getIfNoneMatch("/" + itemId, null, ifNoneMatch));
     }
 
-    public ResponseEntity<Object> updateItem(long itemId, long userId, ItemUpdateDto itemUpdateDto) {
-        return patch("/" + itemId, userId, itemUpdateDto);
+    public CompletableFuture<ResponseEntity<byte[]>> updateItem(long itemId, long userId, ItemUpdateDto itemUpdateDto) {
+        return responseCache.invalidating(() -> patch("/" + itemId, userId, itemUpdateDto),
+                API_PREFIX + "/" + itemId, REQUESTS);
     }
 
-    public void deleteItem(long itemId, long userId) {
-        delete("/" + itemId, userId);
+    public CompletableFuture<Void> deleteItem(long itemId, long userId) {
+        // ответ сервера клиенту не передаётся, статус ответа gateway задаёт контроллер
+        return responseCache.invalidating(() -> delete("/" + itemId, userId), API_PREFIX + "/" + itemId, REQUESTS)
+                .thenAccept(response -> { });
     }
 
-    public ResponseEntity<Object> getUserItems(long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getUserItems(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchByText(String text) {
-        return get("/search?text={text}", null,  Map.of("text", text));
+    public CompletableFuture<ResponseEntity<byte[]>> searchByText(String text, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    // параметры курсора передаются на сервер, только если заданы
+    public CompletableFuture<ResponseEntity<byte[]>> getComments(long itemId, LocalDateTime afterCreated,
+                                                                 Long afterId, int size) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("size", size);
+        StringBuilder query = new StringBuilder("/" + itemId + "/comments?size={size}");
+        if (afterCreated != null) {
+            params.put("afterCreated", afterCreated);
+            query.append("&afterCreated={afterCreated}");
+        }
+        if (afterId != null) {
+            params.put("afterId", afterId);
+            query.append("&afterId={afterId}");
+        }
+        return get(query.toString(), null, params);
     }
 
-    public ResponseEntity<Object> addComment(long itemId, long userId, CommentCreateDto commentCreateDto) {
-        return post("/" + itemId + "/comment", userId, commentCreateDto);
+    public CompletableFuture<ResponseEntity<byte[]>> addComment(long itemId, long userId, CommentCreateDto commentCreateDto) {
+        return responseCache.invalidating(() -> post("/" + itemId + "/comment", userId, commentCreateDto),
+                API_PREFIX + "/" + itemId);
     }
 }
@@ -1,15 +1,25 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
@@ -17,48 +27,74 @@ import ru.practicum.shareit.item.dto.*;
 public class ItemController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
     private final ItemClient itemClient;
+    private final ItemImporter itemImporter;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> create(@RequestBody @Valid ItemCreateDto itemCreateDto,
-                                         @RequestHeader(USER_ID_HEADER) @Positive long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> create(@RequestBody @Valid ItemCreateDto itemCreateDto,
+                                                            @RequestHeader(USER_ID_HEADER) @Positive long userId) {
         return itemClient.createNewItem(itemCreateDto, userId);
     }
 
+    /**
+     * Импорт item из NDJSON или JSON-массива без загрузки всего тела запроса в память.
+     * Ответ содержит число полученных строк, число сохранённых item и ошибки по номерам строк
+     */
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> importItems(@RequestHeader(USER_ID_HEADER) @Positive long userId,
+                                         InputStream body) throws IOException {
+        return itemImporter.importItems(body, userId);
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> get(@PathVariable @Positive long itemId) {
-        return itemClient.getItem(itemId);
+    public CompletableFuture<ResponseEntity<byte[]>> get(@PathVariable @Positive long itemId,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemClient.getItem(itemId, ifNoneMatch);
     }
 
     @PatchMapping("/{itemId}")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> update(@PathVariable @Positive long itemId,
-                                         @RequestHeader(USER_ID_HEADER) @Positive long userId,
-                                         @RequestBody @Valid ItemUpdateDto itemUpdateDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> update(@PathVariable @Positive long itemId,
+                                                            @RequestHeader(USER_ID_HEADER) @Positive long userId,
+                                                            @RequestBody @Valid ItemUpdateDto itemUpdateDto) {
         return itemClient.updateItem(itemId, userId, itemUpdateDto);
     }
 
     @DeleteMapping("/{itemId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable @Positive long itemId,
-                       @RequestHeader(USER_ID_HEADER) @Positive long userId) {
-        itemClient.deleteItem(itemId, userId);
+    public CompletableFuture<Void> delete(@PathVariable @Positive long itemId,
+                                          @RequestHeader(USER_ID_HEADER) @Positive long userId) {
+        return itemClient.deleteItem(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserItems(@RequestHeader(USER_ID_HEADER) @Positive long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getUserItems(@RequestHeader(USER_ID_HEADER) @Positive long userId) {
         return itemClient.getUserItems(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam @NotBlank String text) {
-        return itemClient.searchByText(text);
+    public CompletableFuture<ResponseEntity<byte[]>> searchItems(@RequestParam @NotBlank String text,
+                                                                 @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                                 @RequestParam(defaultValue = "10") @Positive @Max(100) int size) {
+        return itemClient.searchByText(text, from, size);
+    }
+
+    /**
+     * получить страницу комментариев item по убыванию (created, id)
+     */
+    @GetMapping("/{itemId}/comments")
+    public CompletableFuture<ResponseEntity<byte[]>> getComments(@PathVariable @Positive long itemId,
+                                                                 @RequestParam(required = false)
+                                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+                                                                 @RequestParam(required = false) @Positive Long afterId,
+                                                                 @RequestParam(defaultValue = "10") @Positive @Max(100) int size) {
+        return itemClient.getComments(itemId, afterCreated, afterId, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@PathVariable @Positive long itemId,
-                                 @RequestHeader(USER_ID_HEADER) @Positive long userId,
-                                 @RequestBody @Valid CommentCreateDto commentCreateDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> addComment(@PathVariable @Positive long itemId,
+                                                    @RequestHeader(USER_ID_HEADER) @Positive long userId,
+                                                    @RequestBody @Valid CommentCreateDto commentCreateDto) {
         return itemClient.addComment(itemId, userId, commentCreateDto);
     }
 }
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт item из тела запроса в формате NDJSON или JSON-массива.
+ * Строки разбираются по одной по мере чтения тела и проверяются ограничениями ItemCreateDto,
+ * корректные строки отправляются на сервер частями, каждая часть сохраняется сервером в одной транзакции
+ */
+@Component
+@Slf4j
+public class ItemImporter {
+    private final ItemClient itemClient;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader itemReader;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public ItemImporter(ItemClient itemClient,
+                        ObjectMapper objectMapper,
+                        Validator validator,
+                        @Value("${shareit-server.items-import.chunk-size:500}") int chunkSize) {
+        this.itemClient = itemClient;
+        this.objectMapper = objectMapper;
+        this.itemReader = objectMapper.readerFor(ItemCreateDto.class);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Ответ сервера с ошибкой прерывает импорт, части, сохранённые до этого, остаются сохранёнными.
+     * Клиент получает статус ответа сервера и итог импорта: сколько строк прочитано и сколько item сохранено,
+     * строки отклонённой части перечислены в ошибках с сообщением сервера
+     */
+    public ResponseEntity<ItemImportResultDto> importItems(InputStream body, long userId) throws IOException {
+        Run run = new Run(userId);
+        long row = 0;
+        try (MappingIterator<ItemCreateDto> rows = itemReader.readValues(body)) {
+            while (run.serverStatus == null && rows.hasNextValue()) {
+                row++;
+                try {
+                    run.accept(row, rows.nextValue());
+                } catch (JsonMappingException e) {
+                    // строка пропускается, чтение продолжается со следующей
+                    run.reject(row, "Некорректное значение: " + e.getOriginalMessage());
+                } catch (JsonParseException e) {
+                    run.reject(row, "Некорректный JSON: " + e.getOriginalMessage());
+                    break;
+                }
+            }
+        } catch (JsonParseException e) {
+            // после синтаксической ошибки между строками чтение продолжить нельзя
+            run.reject(row + 1, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+        if (run.serverStatus == null) {
+            run.send();
+        }
+        run.errors.sort(Comparator.comparingLong(ItemImportErrorDto::row));
+        ItemImportResultDto result = new ItemImportResultDto((int) row, run.created, run.errors);
+        if (run.serverStatus != null) {
+            log.warn("Импорт item прерван ответом сервера {}: owner_id = {}, получено строк {}, сохранено {}",
+                    run.serverStatus, userId, row, run.created);
+            return ResponseEntity.status(run.serverStatus).body(result);
+        }
+        log.info("Импорт item: owner_id = {}, получено строк {}, сохранено {}, ошибок {}",
+                userId, row, run.created, run.errors.size());
+        return ResponseEntity.ok(result);
+    }
+
+    private String serverMessage(ResponseEntity<byte[]> response) {
+        byte[] body = response.getBody();
+        if (body == null || body.length == 0) {
+            return "без описания ошибки";
+        }
+        try {
+            // ответ сервера с ошибкой - ErrorResponse
+            String error = objectMapper.readTree(body).path("error").asText("");
+            if (!error.isEmpty()) {
+                return error;
+            }
+        } catch (IOException e) {
+            // тело не JSON, передаётся как есть
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    private String validate(ItemCreateDto item) {
+        return validator.validate(item).stream()
+                .map(this::describe)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    private String describe(ConstraintViolation<ItemCreateDto> violation) {
+        return "Поле " + violation.getPropertyPath() + " " + violation.getMessage() + ".";
+    }
+
+    /**
+     * состояние одного импорта: накопленная часть строк и итоги уже отправленных частей
+     */
+    private final class Run {
+        private final long userId;
+        private final List<ItemCreateDto> chunk = new ArrayList<>(chunkSize);
+        private final List<Long> chunkRows = new ArrayList<>(chunkSize);
+        private final List<ItemImportErrorDto> errors = new ArrayList<>();
+        private int created;
+        // статус ответа сервера, прервавшего импорт
+        private HttpStatusCode serverStatus;
+
+        private Run(long userId) {
+            this.userId = userId;
+        }
+
+        private void accept(long row, ItemCreateDto item) throws IOException {
+            String violations = validate(item);
+            if (!violations.isEmpty()) {
+                reject(row, violations);
+                return;
+            }
+            chunk.add(item);
+            chunkRows.add(row);
+            if (chunk.size() == chunkSize) {
+                send();
+            }
+        }
+
+        private void reject(long row, String message) {
+            errors.add(new ItemImportErrorDto(row, message));
+        }
+
+        private void send() throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            ResponseEntity<byte[]> response = itemClient.importItems(List.copyOf(chunk), userId).join();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                serverStatus = response.getStatusCode();
+                String message = "Не сохранено, ответ сервера " + serverStatus.value() + ": " + serverMessage(response);
+                chunkRows.forEach(row -> reject(row, message));
+                return;
+            }
+            ItemImportResultDto result = objectMapper.readValue(response.getBody(), ItemImportResultDto.class);
+            created += result.created();
+            // сервер нумерует строки внутри части
+            result.errors().forEach(error -> reject(chunkRows.get((int) error.row() - 1), error.message()));
+            chunk.clear();
+            chunkRows.clear();
+        }
+    }
+}
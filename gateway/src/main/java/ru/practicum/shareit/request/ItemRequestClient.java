@@ -5,29 +5,55 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerRequestEngine;
+import ru.practicum.shareit.client.ServerResponseCache;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
+    private final ServerResponseCache responseCache;
+
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl) {
-        super(serverUrl + API_PREFIX);
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                             ServerRequestEngine engine,
+                             ServerResponseCache responseCache) {
+        super(serverUrl + API_PREFIX, engine);
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> createNewItemRequest(long userId, ItemRequestCreateDto dto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createNewItemRequest(long userId, ItemRequestCreateDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> getUserItemRequests(long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getUserItemRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(long userId) {
-        return get("/all", userId);
+    // параметры курсора передаются на сервер, только если заданы
+    public CompletableFuture<ResponseEntity<byte[]>> getAllItemRequests(long userId, LocalDateTime afterCreated,
+                                                                        Long afterId, int size) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("size", size);
+        StringBuilder query = new StringBuilder("/all?size={size}");
+        if (afterCreated != null) {
+            params.put("afterCreated", afterCreated);
+            query.append("&afterCreated={afterCreated}");
+        }
+        if (afterId != null) {
+            params.put("afterId", afterId);
+            query.append("&afterId={afterId}");
+        }
+        return get(query.toString(), userId, params);
     }
 
-    public ResponseEntity<Object> getItemRequest(long requestId) {
-        return get("/" + requestId);
+    public CompletableFuture<ResponseEntity<byte[]>> getItemRequest(long requestId, String ifNoneMatch) {
+        return responseCache.get(API_PREFIX + "/" + requestId, ifNoneMatch,
+                () -> getIfNoneMatch("/" + requestId, null, ifNoneMatch));
     }
 }
@@ -1,12 +1,20 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/requests")
@@ -15,11 +23,12 @@ import org.springframework.web.bind.annotation.*;
 public class ItemRequestController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
     private final ItemRequestClient itemRequestClient;
+    private final ItemRequestEventRelay itemRequestEventRelay;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createNewItemRequest(@RequestHeader(USER_ID_HEADER) @Positive long userId,
-                                                       @RequestBody @Valid ItemRequestCreateDto dto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createNewItemRequest(@RequestHeader(USER_ID_HEADER) @Positive long userId,
+                                                                          @RequestBody @Valid ItemRequestCreateDto dto) {
         return itemRequestClient.createNewItemRequest(userId, dto);
     }
 
@@ -27,20 +36,33 @@ public class ItemRequestController {
      * получить список своих запросов вместе с ответами на них
      */
     @GetMapping
-    public ResponseEntity<Object> getUserItemRequests(@RequestHeader(USER_ID_HEADER) @Positive long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> getUserItemRequests(@RequestHeader(USER_ID_HEADER) @Positive long userId) {
         return itemRequestClient.getUserItemRequests(userId);
     }
 
     /**
-     * получить список запросов других пользователей, исключая свои
+     * получить страницу запросов других пользователей, исключая свои, по убыванию (created, id)
      */
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItemRequests(@RequestHeader(USER_ID_HEADER) @Positive long userId) {
-        return itemRequestClient.getAllItemRequests(userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getAllItemRequests(@RequestHeader(USER_ID_HEADER) @Positive long userId,
+                                                                        @RequestParam(required = false)
+                                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+                                                                        @RequestParam(required = false) @Positive Long afterId,
+                                                                        @RequestParam(defaultValue = "10") @Positive @Max(100) int size) {
+        return itemRequestClient.getAllItemRequests(userId, afterCreated, afterId, size);
+    }
+
+    /**
+     * подписаться на новые запросы других пользователей и ответы на свои запросы
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getEventStream(@RequestHeader(USER_ID_HEADER) @Positive long userId) {
+        return itemRequestEventRelay.subscribe(userId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequest(@PathVariable @Positive long requestId) {
-        return itemRequestClient.getItemRequest(requestId);
+    public CompletableFuture<ResponseEntity<byte[]>> getItemRequest(@PathVariable @Positive long requestId,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemRequestClient.getItemRequest(requestId, ifNoneMatch);
     }
 }
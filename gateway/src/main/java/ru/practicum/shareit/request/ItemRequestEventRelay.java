@@ -0,0 +1,156 @@
+package ru.practicum.shareit.request;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Раздача событий о новых запросах вещей и ответах на них клиентам gateway.
+ * Gateway держит одно соединение с потоком сервера /requests/stream независимо от числа клиентов
+ * и переподключается при разрыве; события, созданные во время разрыва, клиенты получают из GET /requests/all и GET /requests.
+ * Событие request получают все клиенты, кроме автора запроса, событие response - только автор запроса
+ */
+@Component
+@Slf4j
+public class ItemRequestEventRelay {
+    private static final String REQUEST_EVENT = "request";
+    private static final String RESPONSE_EVENT = "response";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final Duration reconnectDelay;
+    private final Map<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private Disposable connection;
+
+    public ItemRequestEventRelay(@Value("${shareit-server.url}") String serverUrl,
+                                 WebClient.Builder webClientBuilder,
+                                 ObjectMapper objectMapper,
+                                 @Value("${shareit-server.request-stream.timeout:30m}") Duration timeout,
+                                 @Value("${shareit-server.request-stream.reconnect-delay:1s}") Duration reconnectDelay) {
+        this.webClient = webClientBuilder.baseUrl(serverUrl).build();
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    public SseEmitter subscribe(long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribers.compute(userId, (id, emitters) -> {
+            Set<SseEmitter> updated = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            updated.add(emitter);
+            return updated;
+        });
+        emitter.onCompletion(() -> unsubscribe(userId, emitter));
+        emitter.onTimeout(() -> unsubscribe(userId, emitter));
+        emitter.onError(e -> unsubscribe(userId, emitter));
+        return emitter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void connect() {
+        connection = webClient.get()
+                .uri("/requests/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .bodyToFlux(EVENT_TYPE)
+                .doOnSubscribe(subscription -> log.info("Подключение к потоку запросов вещей сервера"))
+                // завершение потока сервером - тоже разрыв
+                .concatWith(Mono.error(new IOException("Сервер закрыл поток запросов вещей")))
+                .doOnError(e -> log.warn("Разрыв потока запросов вещей: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, reconnectDelay)
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .transientErrors(true))
+                // отправка клиентам блокирует поток, потоки ввода-вывода HTTP-клиента не занимаются
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(this::dispatch);
+    }
+
+    @PreDestroy
+    public void disconnect() {
+        if (connection != null) {
+            connection.dispose();
+        }
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    private void dispatch(ServerSentEvent<String> event) {
+        if (event.event() == null || event.data() == null) {
+            // heartbeat сервера передаётся клиентам, чтобы их соединения тоже не простаивали
+            subscribers.forEach((userId, emitters) -> send(userId, emitters, () -> SseEmitter.event().comment("heartbeat")));
+            return;
+        }
+        try {
+            switch (event.event()) {
+                case REQUEST_EVENT -> {
+                    long authorId = objectMapper.readTree(event.data()).path("authorId").asLong();
+                    subscribers.forEach((userId, emitters) -> {
+                        if (userId != authorId) {
+                            send(userId, emitters, () -> toClientEvent(event));
+                        }
+                    });
+                }
+                case RESPONSE_EVENT -> {
+                    long requestAuthorId = objectMapper.readTree(event.data()).path("requestAuthorId").asLong();
+                    Set<SseEmitter> emitters = subscribers.get(requestAuthorId);
+                    if (emitters != null) {
+                        send(requestAuthorId, emitters, () -> toClientEvent(event));
+                    }
+                }
+                default -> log.debug("Пропущено событие потока запросов вещей: {}", event.event());
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Некорректное событие потока запросов вещей {}: {}", event.event(), e.getOriginalMessage());
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toClientEvent(ServerSentEvent<String> event) {
+        return SseEmitter.event()
+                .name(event.event())
+                .data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    // построитель события одноразовый, для каждого клиента создаётся свой
+    private void send(long userId, Set<SseEmitter> emitters, Supplier<SseEmitter.SseEventBuilder> event) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(event.get());
+            } catch (IOException | IllegalStateException e) {
+                // клиент отключился
+                unsubscribe(userId, emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void unsubscribe(long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -5,32 +5,48 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerRequestEngine;
+import ru.practicum.shareit.client.ServerResponseCache;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import java.util.concurrent.CompletableFuture;
+
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
+    // при удалении пользователя каскадно удаляются его item, запросы и комментарии
+    private static final String ALL_RESPONSES = "/";
+    // имя пользователя входит в комментарии item
+    private static final String ITEMS = "/items/";
+
+    private final ServerResponseCache responseCache;
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl) {
-        super(serverUrl + API_PREFIX);
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      ServerRequestEngine engine,
+                      ServerResponseCache responseCache) {
+        super(serverUrl + API_PREFIX, engine);
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> createNewUser(UserCreateDto userCreateDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> createNewUser(UserCreateDto userCreateDto) {
         return post("", userCreateDto);
     }
 
-    public ResponseEntity<Object> getUser(long userId) {
-        return get("/" + userId, userId);
+    public CompletableFuture<ResponseEntity<byte[]>> getUser(long userId, String ifNoneMatch) {
+        return responseCache.get(API_PREFIX + "/" + userId, ifNoneMatch,
+                () -> getIfNoneMatch("/" + userId, userId, ifNoneMatch));
     }
 
-    public void deleteUser(long userId) {
-        delete("/" + userId);
+    public CompletableFuture<Void> deleteUser(long userId) {
+        // ответ сервера клиенту не передаётся, статус ответа gateway задаёт контроллер
+        return responseCache.invalidating(() -> delete("/" + userId), ALL_RESPONSES)
+                .thenAccept(response -> { });
     }
 
-    public ResponseEntity<Object> updateUser(UserUpdateDto userUpdateDto, long userId) {
-        return patch("/" + userId, userUpdateDto);
+    public CompletableFuture<ResponseEntity<byte[]>> updateUser(UserUpdateDto userUpdateDto, long userId) {
+        return responseCache.invalidating(() -> patch("/" + userId, userUpdateDto), API_PREFIX + "/" + userId, ITEMS);
     }
 }
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -10,6 +11,8 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
@@ -19,25 +22,26 @@ public class UserController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> create(@RequestBody @Valid UserCreateDto userCreateDto) {
+    public CompletableFuture<ResponseEntity<byte[]>> create(@RequestBody @Valid UserCreateDto userCreateDto) {
         return userClient.createNewUser(userCreateDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> get(@PathVariable @Positive long userId) {
-        return userClient.getUser(userId);
+    public CompletableFuture<ResponseEntity<byte[]>> get(@PathVariable @Positive long userId,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return userClient.getUser(userId, ifNoneMatch);
     }
 
     @PatchMapping("/{userId}")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> update(@RequestBody @Valid UserUpdateDto userUpdateDto,
-                                         @PathVariable @Positive long userId) {
+    public CompletableFuture<ResponseEntity<byte[]>> update(@RequestBody @Valid UserUpdateDto userUpdateDto,
+                                                            @PathVariable @Positive long userId) {
         return userClient.updateUser(userUpdateDto, userId);
     }
 
     @DeleteMapping("/{userId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable @Positive long userId) {
-        userClient.deleteUser(userId);
+    public CompletableFuture<Void> delete(@PathVariable @Positive long userId) {
+        return userClient.deleteUser(userId);
     }
 }
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerResponseCacheTest {
+    private static final String ETAG = "\"v1\"";
+
+    private final ServerResponseCache cache = new ServerResponseCache(100, Duration.ofMinutes(1));
+
+    @Test
+    void get_whenLoadedBefore_thenServedFromCache() {
+        CountingLoader loader = new CountingLoader(ok("item"));
+
+        cache.get("/items/1", null, loader).join();
+        ResponseEntity<byte[]> cached = cache.get("/items/1", null, loader).join();
+
+        assertEquals("item", body(cached));
+        assertEquals(1, loader.loads.get());
+    }
+
+    @Test
+    void get_whenNotOk_thenNotCached() {
+        CountingLoader loader = new CountingLoader(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+
+        cache.get("/items/1", null, loader).join();
+        cache.get("/items/1", null, loader).join();
+
+        assertEquals(2, loader.loads.get());
+    }
+
+    @Test
+    void get_whenInvalidatedDuringLoad_thenLoadedResponseNotCached() {
+        CompletableFuture<ResponseEntity<byte[]>> slowLoad = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> stale = cache.get("/items/1", null, () -> slowLoad);
+
+        cache.invalidating(() -> CompletableFuture.completedFuture(ok("new")), "/items/1").join();
+        slowLoad.complete(ok("old"));
+
+        assertEquals("old", body(stale.join()));
+        CountingLoader loader = new CountingLoader(ok("new"));
+        assertEquals("new", body(cache.get("/items/1", null, loader).join()));
+        assertEquals(1, loader.loads.get());
+    }
+
+    @Test
+    void invalidating_whenPathEndsWithSlash_thenAllResponsesWithPrefixRemoved() {
+        CountingLoader items = new CountingLoader(ok("item"));
+        CountingLoader users = new CountingLoader(ok("user"));
+        cache.get("/items/1", null, items).join();
+        cache.get("/items/2", null, items).join();
+        cache.get("/users/1", null, users).join();
+
+        cache.invalidating(() -> CompletableFuture.completedFuture(ok("changed")), "/items/").join();
+        cache.get("/items/1", null, items).join();
+        cache.get("/items/2", null, items).join();
+        cache.get("/users/1", null, users).join();
+
+        assertEquals(4, items.loads.get());
+        assertEquals(1, users.loads.get());
+    }
+
+    @Test
+    void get_whenIfNoneMatchContainsCachedEtag_thenNotModified() {
+        cache.get("/items/1", null, new CountingLoader(okWithEtag("item"))).join();
+
+        ResponseEntity<byte[]> response = cache.get("/items/1", "\"v0\", " + ETAG, failingLoader()).join();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void get_whenIfNoneMatchIsAny_thenNotModified() {
+        cache.get("/items/1", null, new CountingLoader(okWithEtag("item"))).join();
+
+        ResponseEntity<byte[]> response = cache.get("/items/1", "*", failingLoader()).join();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    }
+
+    @Test
+    void get_whenIfNoneMatchDiffers_thenCachedResponseReturned() {
+        cache.get("/items/1", null, new CountingLoader(okWithEtag("item"))).join();
+
+        ResponseEntity<byte[]> response = cache.get("/items/1", "\"v0\"", failingLoader()).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("item", body(response));
+    }
+
+    private static ResponseEntity<byte[]> ok(String body) {
+        return ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseEntity<byte[]> okWithEtag(String body) {
+        return ResponseEntity.ok().eTag(ETAG).body(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    // ответ должен быть взят из кеша
+    private static Supplier<CompletableFuture<ResponseEntity<byte[]>>> failingLoader() {
+        return () -> {
+            throw new AssertionError("запрос к серверу не ожидался");
+        };
+    }
+
+    private static final class CountingLoader implements Supplier<CompletableFuture<ResponseEntity<byte[]>>> {
+        private final ResponseEntity<byte[]> response;
+        private final AtomicInteger loads = new AtomicInteger();
+
+        private CountingLoader(ResponseEntity<byte[]> response) {
+            this.response = response;
+        }
+
+        @Override
+        public CompletableFuture<ResponseEntity<byte[]>> get() {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(response);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ItemImporterTest {
+    private static final long USER_ID = 1L;
+    private static final int CHUNK_SIZE = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    private final ItemClient itemClient = mock(ItemClient.class);
+    private final ItemImporter importer =
+            new ItemImporter(itemClient, objectMapper, validatorFactory.getValidator(), CHUNK_SIZE);
+    // имена item в частях, отправленных на сервер
+    private final List<List<String>> sentChunks = new ArrayList<>();
+
+    @AfterEach
+    void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void importItems_whenMappingErrorInArray_thenRowSkippedAndReadingContinued() {
+        serverSavesAll();
+
+        ResponseEntity<ItemImportResultDto> response = importItems("["
+                + item("a") + ","
+                + "{\"name\": \"b\", \"description\": \"d\", \"available\": {}},"
+                + item("c") + "]");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ItemImportResultDto result = response.getBody();
+        assertNotNull(result);
+        assertEquals(3, result.received());
+        assertEquals(2, result.created());
+        assertEquals(List.of(2L), rows(result));
+        assertTrue(result.errors().getFirst().message().startsWith("Некорректное значение"));
+        assertEquals(List.of(List.of("a", "c")), sentChunks);
+    }
+
+    @Test
+    void importItems_whenBodyTruncated_thenRowsBeforeSavedAndTruncatedRowRejected() {
+        serverSavesAll();
+
+        ResponseEntity<ItemImportResultDto> response = importItems(item("a") + "\n"
+                + item("b") + "\n"
+                + "{\"name\": \"c\", \"descr");
+
+        ItemImportResultDto result = response.getBody();
+        assertNotNull(result);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, result.created());
+        assertEquals(List.of(3L), rows(result));
+        assertTrue(result.errors().getFirst().message().startsWith("Некорректный JSON"));
+        assertEquals(List.of(List.of("a", "b")), sentChunks);
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_whenServerRejectsRowOfSecondChunk_thenRowNumberedInBody() {
+        // сервер отклоняет первую строку каждой части, кроме первой
+        when(itemClient.importItems(anyList(), eq(USER_ID))).thenAnswer(invocation -> {
+            List<ItemCreateDto> chunk = invocation.getArgument(0);
+            sentChunks.add(chunk.stream().map(ItemCreateDto::getName).toList());
+            List<ItemImportErrorDto> errors = sentChunks.size() == 1
+                    ? List.of()
+                    : List.of(new ItemImportErrorDto(1, "ItemRequest id = 5 не существует"));
+            return serverResult(new ItemImportResultDto(chunk.size(), chunk.size() - errors.size(), errors));
+        });
+
+        ResponseEntity<ItemImportResultDto> response = importItems(item("a") + "\n"
+                + "{\"name\": \"\", \"description\": \"d\", \"available\": true}\n"
+                + item("b") + "\n"
+                + item("c") + "\n"
+                + item("d") + "\n");
+
+        ItemImportResultDto result = response.getBody();
+        assertNotNull(result);
+        assertEquals(5, result.received());
+        assertEquals(3, result.created());
+        // строка 2 отклонена проверкой, строка 4 - первая строка второй части - сервером
+        assertEquals(List.of(2L, 4L), rows(result));
+        assertEquals("ItemRequest id = 5 не существует", result.errors().getLast().message());
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), sentChunks);
+    }
+
+    @Test
+    void importItems_whenServerFailsOnSecondChunk_thenSavedCountAndFailedRowsReturned() {
+        when(itemClient.importItems(anyList(), eq(USER_ID))).thenAnswer(invocation -> {
+            List<ItemCreateDto> chunk = invocation.getArgument(0);
+            sentChunks.add(chunk.stream().map(ItemCreateDto::getName).toList());
+            if (sentChunks.size() == 2) {
+                return CompletableFuture.completedFuture(ResponseEntity.internalServerError()
+                        .body("{\"error\": \"Произошла непредвиденная ошибка\"}".getBytes(StandardCharsets.UTF_8)));
+            }
+            return serverResult(new ItemImportResultDto(chunk.size(), chunk.size(), List.of()));
+        });
+
+        ResponseEntity<ItemImportResultDto> response = importItems(item("a") + "\n"
+                + item("b") + "\n"
+                + item("c") + "\n"
+                + item("d") + "\n"
+                + item("e") + "\n");
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        ItemImportResultDto result = response.getBody();
+        assertNotNull(result);
+        assertEquals(4, result.received());
+        assertEquals(2, result.created());
+        assertEquals(List.of(3L, 4L), rows(result));
+        assertEquals("Не сохранено, ответ сервера 500: Произошла непредвиденная ошибка",
+                result.errors().getFirst().message());
+        // после ошибки сервера строки не читаются и не отправляются
+        assertEquals(2, sentChunks.size());
+    }
+
+    @SneakyThrows
+    private ResponseEntity<ItemImportResultDto> importItems(String body) {
+        return importer.importItems(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), USER_ID);
+    }
+
+    private void serverSavesAll() {
+        when(itemClient.importItems(anyList(), eq(USER_ID))).thenAnswer(invocation -> {
+            List<ItemCreateDto> chunk = invocation.getArgument(0);
+            sentChunks.add(chunk.stream().map(ItemCreateDto::getName).toList());
+            return serverResult(new ItemImportResultDto(chunk.size(), chunk.size(), List.of()));
+        });
+    }
+
+    @SneakyThrows
+    private CompletableFuture<ResponseEntity<byte[]>> serverResult(ItemImportResultDto result) {
+        return CompletableFuture.completedFuture(ResponseEntity.ok(objectMapper.writeValueAsBytes(result)));
+    }
+
+    private static String item(String name) {
+        return "{\"name\": \"" + name + "\", \"description\": \"description\", \"available\": true}";
+    }
+
+    private static List<Long> rows(ItemImportResultDto result) {
+        return result.errors().stream().map(ItemImportErrorDto::row).toList();
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Очистка кэша второго уровня Hibernate от сущностей, изменённых в обход кэша этого экземпляра.
+ * Item и запросы вещей пользователя удаляются ON DELETE CASCADE без участия Hibernate,
+ * поэтому после коммита удаления пользователя их регионы очищаются целиком.
+ * Изменения пользователей и item на других экземплярах сервера приходят событиями из outbox,
+ * сущность удаляется из кэша по id
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEviction {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        entityManagerFactory.getCache().evict(User.class, event.userId());
+        entityManagerFactory.getCache().evict(Item.class);
+        entityManagerFactory.getCache().evict(ItemRequest.class);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserSaved(UserSavedEvent event) {
+        entityManagerFactory.getCache().evict(User.class, event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        entityManagerFactory.getCache().evict(Item.class, event.item().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        entityManagerFactory.getCache().evict(Item.class, event.itemId());
+    }
+
+    // счётчик и время последнего комментария хранятся в item
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        entityManagerFactory.getCache().evict(Item.class, event.itemId());
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.jcache.CacheManagerImpl;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Кэш второго уровня Hibernate на Caffeine JCache, регионы описаны в hibernate-cache.conf.
+ * Каждая фабрика сессий получает собственный менеджер кэшей: общий менеджер CaffeineCachingProvider
+ * разделялся бы фабриками сессий разных БД в одной JVM, а конфигурацию из jar он не находит
+ */
+public class EntityCacheRegionFactory extends JCacheRegionFactory {
+    private static final URI REGIONS_CONFIG = URI.create("classpath:hibernate-cache.conf");
+
+    @Override
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map<String, Object> properties) {
+        CaffeineCachingProvider provider = new CaffeineCachingProvider();
+        return new CacheManagerImpl(provider, false, REGIONS_CONFIG, provider.getDefaultClassLoader(), new Properties());
+    }
+}
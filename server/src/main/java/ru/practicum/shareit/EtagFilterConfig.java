@@ -0,0 +1,38 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.regex.Pattern;
+
+/**
+ * Строгий ETag (хеш тела ответа) для GET отдельных item, пользователей и запросов вещей.
+ * На запрос с совпадающим If-None-Match сервер отвечает 304 Not Modified без тела.
+ * Списки не проходят через фильтр: для хеша ответ пришлось бы буферизовать целиком
+ */
+@Configuration
+public class EtagFilterConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new SingleResourceEtagFilter());
+        registration.addUrlPatterns("/items/*", "/users/*", "/requests/*");
+        return registration;
+    }
+
+    // шаблоны url сервлетов не отличают /items/{id} от /items/search, поэтому путь проверяется здесь
+    static class SingleResourceEtagFilter extends ShallowEtagHeaderFilter {
+        private static final Pattern SINGLE_RESOURCE = Pattern.compile("/(items|users|requests)/\\d+");
+        private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return !SINGLE_RESOURCE.matcher(PATH_HELPER.getPathWithinApplication(request)).matches();
+        }
+    }
+}
@@ -25,7 +25,8 @@ import java.time.LocalDateTime;
 })
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -37,6 +38,11 @@ public class Booking {
     @JoinColumn(name = "user_id")
     private User booker;
 
+    // копия items.owner_id: владелец item не меняется, страницы бронирований владельца выбираются по индексу bookings
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private Long ownerId;
+
     @Column(name = "start_time", nullable = false)
     private LocalDateTime start;
 
@@ -48,6 +54,11 @@ public class Booking {
     @Builder.Default
     private Status status = Status.WAITING;
 
+    @PrePersist
+    void copyItemOwner() {
+        ownerId = item.getOwner().getId();
+    }
+
     public enum Status {
         WAITING,
         APPROVED,
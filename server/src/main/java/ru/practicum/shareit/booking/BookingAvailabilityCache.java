@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingSavedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Деревья интервалов подтверждённых и ожидающих подтверждения бронирований по item.
+ * Дерево загружается из БД при первом обращении к item, число деревьев в памяти ограничено,
+ * после коммита транзакций, изменяющих бронирования, загруженные деревья обновляются.
+ * Закончившиеся бронирования удаляются из дерева при загрузке и каждом изменении,
+ * поэтому занятость периодов в прошлом не учитывается
+ */
+@Component
+@Slf4j
+public class BookingAvailabilityCache {
+    private static final List<Booking.Status> BLOCKING_STATUSES = List.of(Booking.Status.APPROVED, Booking.Status.WAITING);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingIntervalTree> trees;
+
+    public BookingAvailabilityCache(BookingRepository bookingRepository,
+                                    @Value("${shareit.booking-availability.cache-size:10000}") long cacheSize) {
+        this.bookingRepository = bookingRepository;
+        this.trees = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    /**
+     * самое раннее начало свободного периода длительностью duration, не раньше from;
+     * совпадает с from, если item свободен весь период
+     */
+    public LocalDateTime nextFreeStart(long itemId, LocalDateTime from, Duration duration) {
+        BookingIntervalTree tree = trees.get(itemId, this::load);
+        synchronized (tree) {
+            return tree.nextFreeStart(from, duration);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingSaved(BookingSavedEvent event) {
+        trees.asMap().computeIfPresent(event.itemId(), (itemId, tree) -> {
+            synchronized (tree) {
+                tree.removeEndedBefore(LocalDateTime.now());
+                if (BLOCKING_STATUSES.contains(event.status())) {
+                    tree.put(new BookingInterval(event.bookingId(), event.start(), event.end()));
+                } else {
+                    tree.remove(event.bookingId());
+                }
+            }
+            return tree;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        trees.invalidate(event.itemId());
+    }
+
+    // бронирования и item пользователя удаляются каскадно
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        trees.invalidateAll();
+    }
+
+    private BookingIntervalTree load(long itemId) {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        bookingRepository.findIntervalsByItem_IdAndStatusIn(itemId, BLOCKING_STATUSES).forEach(tree::put);
+        tree.removeEndedBefore(LocalDateTime.now());
+        log.debug("Загружено дерево бронирований item id = {}: {} бронирований", itemId, tree.size());
+        return tree;
+    }
+}
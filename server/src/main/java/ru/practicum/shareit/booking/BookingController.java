@@ -1,12 +1,16 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.AvailabilityDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateFilter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,6 +27,13 @@ public class BookingController {
         return bookingService.createNewBooking(dto, bookerId);
     }
 
+    @GetMapping("/availability")
+    public AvailabilityDto getAvailability(@RequestParam long itemId,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return bookingService.getAvailability(itemId, start, end);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@PathVariable long bookingId,
                                  @RequestHeader(USER_ID_HEADER) long userId) {
@@ -38,13 +49,21 @@ public class BookingController {
 
     @GetMapping
     public List<BookingDto> getBookerBookings(@RequestHeader(USER_ID_HEADER) long userId,
-                                              @RequestParam(defaultValue = "ALL") BookingStateFilter state) {
-        return bookingService.getBookerBookings(userId, state);
+                                              @RequestParam(defaultValue = "ALL") BookingStateFilter state,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                              @RequestParam(required = false) Long afterId,
+                                              @RequestParam(defaultValue = "10") int size) {
+        return bookingService.getBookerBookings(userId, state, BookingCursor.of(afterStart, afterId), size);
     }
 
     @GetMapping("/owner")
     public List<BookingDto> getOwnerBookings(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                             @RequestParam(defaultValue = "ALL") BookingStateFilter state) {
-        return bookingService.getOwnerBookings(ownerId, state);
+                                             @RequestParam(defaultValue = "ALL") BookingStateFilter state,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+                                             @RequestParam(required = false) Long afterId,
+                                             @RequestParam(defaultValue = "10") int size) {
+        return bookingService.getOwnerBookings(ownerId, state, BookingCursor.of(afterStart, afterId), size);
     }
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * период бронирования [start, end)
+ */
+public record BookingInterval(long id, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Дерево интервалов бронирований одного item: декартово дерево с ключом (start, id),
+ * каждый узел хранит максимальный end своего поддерева.
+ * Закончившиеся бронирования удаляются removeEndedBefore, для этого бронирования также упорядочены по end.
+ * Не потокобезопасно, синхронизацию обеспечивает вызывающий код
+ */
+class BookingIntervalTree {
+    private static final Comparator<BookingInterval> ORDER = Comparator.comparing(BookingInterval::start)
+            .thenComparingLong(BookingInterval::id);
+    private static final Comparator<BookingInterval> END_ORDER = Comparator.comparing(BookingInterval::end)
+            .thenComparingLong(BookingInterval::id);
+
+    private final Map<Long, BookingInterval> intervals = new HashMap<>();
+    private final NavigableSet<BookingInterval> byEnd = new TreeSet<>(END_ORDER);
+    private Node root;
+
+    /**
+     * добавить бронирование или заменить его период
+     */
+    void put(BookingInterval interval) {
+        remove(interval.id());
+        Node[] parts = split(root, interval);
+        root = merge(merge(parts[0], new Node(interval)), parts[1]);
+        intervals.put(interval.id(), interval);
+        byEnd.add(interval);
+    }
+
+    void remove(long bookingId) {
+        BookingInterval interval = intervals.remove(bookingId);
+        if (interval != null) {
+            root = delete(root, interval);
+            byEnd.remove(interval);
+        }
+    }
+
+    /**
+     * удалить бронирования, закончившиеся не позже time
+     */
+    void removeEndedBefore(LocalDateTime time) {
+        while (!byEnd.isEmpty() && !byEnd.first().end().isAfter(time)) {
+            remove(byEnd.first().id());
+        }
+    }
+
+    int size() {
+        return intervals.size();
+    }
+
+    /**
+     * самое раннее начало периода заданной длительности, не раньше from, не пересекающегося ни с одним бронированием.
+     * Обход по возрастанию start пропускает поддеревья, все бронирования которых закончились до текущего кандидата
+     */
+    LocalDateTime nextFreeStart(LocalDateTime from, Duration duration) {
+        LocalDateTime candidate = from;
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                if (node.maxEnd.isAfter(candidate)) {
+                    stack.push(node);
+                    node = node.left;
+                } else {
+                    node = null;
+                }
+            }
+            if (stack.isEmpty()) {
+                break;
+            }
+            node = stack.pop();
+            if (!node.interval.start().isBefore(candidate.plus(duration))) {
+                return candidate;
+            }
+            if (node.interval.end().isAfter(candidate)) {
+                candidate = node.interval.end();
+            }
+            node = node.right;
+        }
+        return candidate;
+    }
+
+    // left - ключи меньше key, right - остальные
+    private static Node[] split(Node node, BookingInterval key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (ORDER.compare(node.interval, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            node.update();
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        node.update();
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node delete(Node node, BookingInterval key) {
+        int compare = ORDER.compare(key, node.interval);
+        if (compare == 0) {
+            return merge(node.left, node.right);
+        }
+        if (compare < 0) {
+            node.left = delete(node.left, key);
+        } else {
+            node.right = delete(node.right, key);
+        }
+        node.update();
+        return node;
+    }
+
+    private static final class Node {
+        private final BookingInterval interval;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private LocalDateTime maxEnd;
+
+        private Node(BookingInterval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.end();
+        }
+
+        private void update() {
+            maxEnd = interval.end();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
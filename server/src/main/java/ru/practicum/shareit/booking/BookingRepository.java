@@ -1,75 +1,133 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    @EntityGraph("Booking.withItem")
-    List<Booking> findAllByBookerOrderByStartDesc(User bookerId);
+    /*
+     * Списки бронирований отдаются страницами по курсору (start, id): страница содержит не более size бронирований,
+     * идущих по убыванию (start, id) строго после переданного курсора.
+     * Условие на пару (start, id) и сортировка совпадают с составными индексами bookings,
+     * поэтому стоимость любой страницы не зависит от её номера.
+     * Списки владельца фильтруются по копии владельца item в bookings.owner_id, а не через items.
+     * Строки списков сразу проецируются в BookingView, сущности не загружаются в контекст персистентности
+     */
+    String BOOKING_VIEW = """
+            select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status,
+                i.id, i.name, i.description, i.available, i.itemRequest.id, u.id, u.name, u.email)
+            from Booking as b join b.item as i join b.booker as u
+            """;
 
-    @EntityGraph("Booking.withItem")
-    List<Booking> findAllByBookerAndStatusOrderByStartDesc(User booker, Booking.Status status);
+    @Query(BOOKING_VIEW + """
+            where u.id = ?1
+            and (b.start, b.id) < (?2, ?3)
+            order by b.start desc, b.id desc
+            limit ?4""")
+    List<BookingView> findBookerBookings(long bookerId, LocalDateTime afterStart, long afterId, int size);
 
-    @Query("""
-            select b from Booking as b join fetch b.item
-            where b.booker.id = ?1 and b.status = 'APPROVED'
+    @Query(BOOKING_VIEW + """
+            where u.id = ?1 and b.status = ?2
+            and (b.start, b.id) < (?3, ?4)
+            order by b.start desc, b.id desc
+            limit ?5""")
+    List<BookingView> findBookerBookingsByStatus(long bookerId, Booking.Status status,
+                                                 LocalDateTime afterStart, long afterId, int size);
+
+    @Query(BOOKING_VIEW + """
+            where u.id = ?1 and b.status = 'APPROVED'
             and b.start <= CURRENT_TIMESTAMP and b.end > CURRENT_TIMESTAMP
-            order by b.start desc""")
-    List<Booking> findCurrentBookingsByBooker_Id(long bookerId);
+            and (b.start, b.id) < (?2, ?3)
+            order by b.start desc, b.id desc
+            limit ?4""")
+    List<BookingView> findCurrentBookingsByBooker_Id(long bookerId, LocalDateTime afterStart, long afterId, int size);
 
-    @Query("""
-            select b from Booking as b join fetch b.item
-            where b.booker.id = ?1 and b.status = 'APPROVED'
+    @Query(BOOKING_VIEW + """
+            where u.id = ?1 and b.status = 'APPROVED'
             and  b.end <= CURRENT_TIMESTAMP
-            order by b.start desc""")
-    List<Booking> findPastBookingByBooker_Id(long bookerId);
+            and (b.start, b.id) < (?2, ?3)
+            order by b.start desc, b.id desc
+            limit ?4""")
+    List<BookingView> findPastBookingByBooker_Id(long bookerId, LocalDateTime afterStart, long afterId, int size);
 
-    @Query("""
-            select b from Booking as b join fetch b.item
-            where b.booker.id = ?1 and b.status = 'APPROVED'
+    @Query(BOOKING_VIEW + """
+            where u.id = ?1 and b.status = 'APPROVED'
             and CURRENT_TIMESTAMP < b.start
-            order by b.start desc""")
-    List<Booking> findFutureBookingByBooker_Id(long bookerId);
+            and (b.start, b.id) < (?2, ?3)
+            order by b.start desc, b.id desc
+            limit ?4""")
+    List<BookingView> findFutureBookingByBooker_Id(long bookerId, LocalDateTime afterStart, long afterId, int size);
 
-    @EntityGraph("Booking.withItemAndBooker")
-    List<Booking> findAllByItem_OwnerOrderByStartDesc(User itemOwner);
+    @Query(BOOKING_VIEW + """
+            where b.ownerId = ?1
+            and (b.start, b.id) < (?2, ?3)
+            order by b.start desc, b.id desc
+            limit ?4""")
+    List<BookingView> findOwnerBookings(long ownerId, LocalDateTime afterStart, long afterId, int size);
 
-    @EntityGraph("Booking.withItemAndBooker")
-    List<Booking> findAllByItem_OwnerAndStatusOrderByStartDesc(User itemOwner, Booking.Status status);
+    @Query(BOOKING_VIEW + """
+            where b.ownerId = ?1 and b.status = ?2
+            and (b.start, b.id) < (?3, ?4)
+            order by b.start desc, b.id desc
+            limit ?5""")
+    List<BookingView> findOwnerBookingsByStatus(long ownerId, Booking.Status status,
+                                                LocalDateTime afterStart, long afterId, int size);
 
-    @Query("""
-            select b from Booking as b join fetch b.item as i join fetch i.owner as o
-            where o.id = ?1 and b.status = 'APPROVED'
+    @Query(BOOKING_VIEW + """
+            where b.ownerId = ?1 and b.status = 'APPROVED'
             and b.start <= CURRENT_TIMESTAMP and b.end > CURRENT_TIMESTAMP
-            order by b.start desc""")
-    List<Booking> findCurrentBookingsByItemOwner_Id(long ownerId);
+            and (b.start, b.id) < (?2, ?3)
+            order by b.start desc, b.id desc
+            limit ?4""")
+    List<BookingView> findCurrentBookingsByItemOwner_Id(long ownerId, LocalDateTime afterStart, long afterId, int size);
 
-    @Query("""
-            select b from Booking as b join fetch b.item as i join fetch i.owner as o
-            where o.id = ?1 and b.status = 'APPROVED'
+    @Query(BOOKING_VIEW + """
+            where b.ownerId = ?1 and b.status = 'APPROVED'
             and b.end <= CURRENT_TIMESTAMP
-            order by b.start desc""")
-    List<Booking> findPastBookingsByItemOwner_Id(long ownerId);
+            and (b.start, b.id) < (?2, ?3)
+            order by b.start desc, b.id desc
+            limit ?4""")
+    List<BookingView> findPastBookingsByItemOwner_Id(long ownerId, LocalDateTime afterStart, long afterId, int size);
 
-    @Query("""
-            select b from Booking as b join fetch b.item as i join fetch i.owner as o
-            where o.id = ?1 and b.status = 'APPROVED'
+    @Query(BOOKING_VIEW + """
+            where b.ownerId = ?1 and b.status = 'APPROVED'
             and CURRENT_TIMESTAMP < b.start
-            order by b.start desc""")
-    List<Booking> findFutureBookingByItemOwner_Id(long ownerId);
+            and (b.start, b.id) < (?2, ?3)
+            order by b.start desc, b.id desc
+            limit ?4""")
+    List<BookingView> findFutureBookingByItemOwner_Id(long ownerId, LocalDateTime afterStart, long afterId, int size);
+
+    /**
+     * по одной строке на item владельца, у которого есть подтверждённые бронирования
+     */
+    @Query("""
+            select new ru.practicum.shareit.item.dto.ItemBookingDates(b.item.id,
+                max(case when b.start <= CURRENT_TIMESTAMP then b.start end),
+                min(case when b.start > CURRENT_TIMESTAMP then b.start end))
+            from Booking as b
+            where b.ownerId = ?1 and b.status = 'APPROVED'
+            group by b.item.id""")
+    List<ItemBookingDates> findBookingDatesByItemOwner_Id(long ownerId);
+
+    @Query("""
+            select new ru.practicum.shareit.booking.BookingInterval(b.id, b.start, b.end) from Booking as b
+            where b.item.id = ?1 and b.status in ?2""")
+    List<BookingInterval> findIntervalsByItem_IdAndStatusIn(long itemId, Collection<Booking.Status> statuses);
 
+    /**
+     * есть ли подтверждённое бронирование item, пересекающееся с периодом [start, end)
+     */
     @Query("""
-            select b from Booking as b join fetch b.item as i
-            where b.item in ?1 and b.status = 'APPROVED'
-            and CURRENT_TIMESTAMP < b.start""")
-    List<Booking> findFutureBookingByItems(Collection<Item> items);
+            select count(b) > 0 from Booking as b
+            where b.item.id = ?1 and b.status = 'APPROVED'
+            and b.start < ?3 and b.end > ?2""")
+    boolean existsApprovedOverlapping(long itemId, LocalDateTime start, LocalDateTime end);
 
     @Query("""
             select b from Booking as b
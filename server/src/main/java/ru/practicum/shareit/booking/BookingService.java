@@ -1,9 +1,12 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.AvailabilityDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateFilter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -13,7 +16,9 @@ public interface BookingService {
 
     BookingDto approveBooking(long bookingId, long ownerId, boolean approved);
 
-    List<BookingDto> getBookerBookings(long bookerId, BookingStateFilter state);
+    List<BookingDto> getBookerBookings(long bookerId, BookingStateFilter state, BookingCursor after, int size);
 
-    List<BookingDto> getOwnerBookings(long ownerId, BookingStateFilter state);
+    List<BookingDto> getOwnerBookings(long ownerId, BookingStateFilter state, BookingCursor after, int size);
+
+    AvailabilityDto getAvailability(long itemId, LocalDateTime start, LocalDateTime end);
 }
@@ -2,19 +2,29 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.AvailabilityDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateFilter;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.event.BookingSavedEvent;
 import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.BookingCreateException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -24,7 +34,10 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final BookingMapper bookingMapper;
+    private final BookingAvailabilityCache availabilityCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -44,15 +57,18 @@ public class BookingServiceImpl implements BookingService {
         if (!validateBookingTime(booking)) {
             throw new BookingCreateException(dto, booker, "Время начала бронирования должно быть раньше времени окончания");
         }
+        // без блокировки: окончательная проверка пересечения выполняется при подтверждении
+        checkNotOverlapsApproved(booking);
 
-
-        booking = bookingRepository.save(booking);
+        booking = bookingRepository.saveAndFlush(booking);
+        publishSaved(booking);
         log.info("Создано новое бронирование: item id = {}, booker id = {}, период с {} по {}",
                 booking.getItem().getId(), bookerId, booking.getStart(), booking.getEnd());
         return bookingMapper.toDto(booking);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingDto getBooking(long bookingId, long userId) {
         Booking booking = getBookingOrElseThrow(bookingId);
         if (!(booking.getBooker().getId().equals(userId) || booking.getItem().getOwner().getId().equals(userId))) {
@@ -75,8 +91,14 @@ public class BookingServiceImpl implements BookingService {
                     "Пользователю id = " + ownerId + " не доступно управление бронированием id = " + bookingId
             );
         }
+        if (approved && booking.getStatus() != Booking.Status.APPROVED) {
+            // блокировка item: параллельные подтверждения бронирований этого item выполняются по очереди
+            getItemForUpdateOrElseThrow(booking.getItem().getId());
+            checkNotOverlapsApproved(booking);
+        }
         booking.setStatus(approved ? Booking.Status.APPROVED : Booking.Status.REJECTED);
         bookingRepository.save(booking);
+        publishSaved(booking);
         if (approved) {
             log.info("Бронирование booking_id = {} подтверждено пользователем owner_id = {}", bookingId, ownerId);
         } else {
@@ -86,31 +108,69 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getBookerBookings(long bookerId, BookingStateFilter state) {
-        User booker = getUserOrElseThrow(bookerId);
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingRepository.findAllByBookerOrderByStartDesc(booker);
-            case CURRENT -> bookingRepository.findCurrentBookingsByBooker_Id(bookerId);
-            case PAST -> bookingRepository.findPastBookingByBooker_Id(bookerId);
-            case FUTURE -> bookingRepository.findFutureBookingByBooker_Id(bookerId);
-            case WAITING -> bookingRepository.findAllByBookerAndStatusOrderByStartDesc(booker, Booking.Status.WAITING);
-            case REJECTED -> bookingRepository.findAllByBookerAndStatusOrderByStartDesc(booker, Booking.Status.REJECTED);
+    @Transactional(readOnly = true)
+    public List<BookingDto> getBookerBookings(long bookerId, BookingStateFilter state, BookingCursor after, int size) {
+        checkPageSize(size);
+        userExistenceCache.requireExists(bookerId);
+        LocalDateTime start = after.start();
+        long id = after.id();
+        List<BookingView> bookings = switch (state) {
+            case ALL -> bookingRepository.findBookerBookings(bookerId, start, id, size);
+            case CURRENT -> bookingRepository.findCurrentBookingsByBooker_Id(bookerId, start, id, size);
+            case PAST -> bookingRepository.findPastBookingByBooker_Id(bookerId, start, id, size);
+            case FUTURE -> bookingRepository.findFutureBookingByBooker_Id(bookerId, start, id, size);
+            case WAITING -> bookingRepository.findBookerBookingsByStatus(
+                    bookerId, Booking.Status.WAITING, start, id, size);
+            case REJECTED -> bookingRepository.findBookerBookingsByStatus(
+                    bookerId, Booking.Status.REJECTED, start, id, size);
         };
-        return bookingMapper.toDto(bookings);
+        return bookingMapper.viewsToDto(bookings);
     }
 
     @Override
-    public List<BookingDto> getOwnerBookings(long ownerId, BookingStateFilter state) {
-        User owner = getUserOrElseThrow(ownerId);
-        List<Booking> bookings = switch (state) {
-            case ALL -> bookingRepository.findAllByItem_OwnerOrderByStartDesc(owner);
-            case CURRENT -> bookingRepository.findCurrentBookingsByItemOwner_Id(ownerId);
-            case PAST -> bookingRepository.findPastBookingsByItemOwner_Id(ownerId);
-            case FUTURE -> bookingRepository.findFutureBookingByItemOwner_Id(ownerId);
-            case WAITING -> bookingRepository.findAllByItem_OwnerAndStatusOrderByStartDesc(owner, Booking.Status.WAITING);
-            case REJECTED -> bookingRepository.findAllByItem_OwnerAndStatusOrderByStartDesc(owner, Booking.Status.REJECTED);
+    @Transactional(readOnly = true)
+    public List<BookingDto> getOwnerBookings(long ownerId, BookingStateFilter state, BookingCursor after, int size) {
+        checkPageSize(size);
+        userExistenceCache.requireExists(ownerId);
+        LocalDateTime start = after.start();
+        long id = after.id();
+        List<BookingView> bookings = switch (state) {
+            case ALL -> bookingRepository.findOwnerBookings(ownerId, start, id, size);
+            case CURRENT -> bookingRepository.findCurrentBookingsByItemOwner_Id(ownerId, start, id, size);
+            case PAST -> bookingRepository.findPastBookingsByItemOwner_Id(ownerId, start, id, size);
+            case FUTURE -> bookingRepository.findFutureBookingByItemOwner_Id(ownerId, start, id, size);
+            case WAITING -> bookingRepository.findOwnerBookingsByStatus(
+                    ownerId, Booking.Status.WAITING, start, id, size);
+            case REJECTED -> bookingRepository.findOwnerBookingsByStatus(
+                    ownerId, Booking.Status.REJECTED, start, id, size);
         };
-        return bookingMapper.toDto(bookings);
+        return bookingMapper.viewsToDto(bookings);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AvailabilityDto getAvailability(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Время начала периода должно быть раньше времени окончания");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item с id = " + itemId + " не существует");
+        }
+        // прошедшая часть периода считается свободной и не проверяется: закончившиеся бронирования
+        // удаляются из дерева не сразу, и ответ не должен зависеть от времени последнего изменения дерева
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = start.isBefore(now) ? now : start;
+        if (!from.isBefore(end)
+                || availabilityCache.nextFreeStart(itemId, from, Duration.between(from, end)).equals(from)) {
+            return new AvailabilityDto(itemId, start, end, true, start);
+        }
+        LocalDateTime nextFreeStart = availabilityCache.nextFreeStart(itemId, from, Duration.between(start, end));
+        return new AvailabilityDto(itemId, start, end, false, nextFreeStart);
+    }
+
+    private void publishSaved(Booking booking) {
+        eventPublisher.publishEvent(new BookingSavedEvent(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus()));
     }
 
     private Item getItemOrElseThrow(long itemId) {
@@ -118,6 +178,18 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundException("Item с id = " + itemId + " не существует"));
     }
 
+    private Item getItemForUpdateOrElseThrow(long itemId) {
+        return itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Item с id = " + itemId + " не существует"));
+    }
+
+    private void checkNotOverlapsApproved(Booking booking) {
+        if (bookingRepository.existsApprovedOverlapping(booking.getItem().getId(), booking.getStart(), booking.getEnd())) {
+            throw new BookingConflictException("Item id = " + booking.getItem().getId()
+                    + " уже забронирован на период с " + booking.getStart() + " по " + booking.getEnd());
+        }
+    }
+
     private Booking getBookingOrElseThrow(long bookingId) {
         return bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с id = " + bookingId + " не существует"));
@@ -131,4 +203,10 @@ public class BookingServiceImpl implements BookingService {
     private boolean validateBookingTime(Booking booking) {
         return booking.getStart().isBefore(booking.getEnd());
     }
+
+    private static void checkPageSize(int size) {
+        if (size <= 0) {
+            throw new ValidationException("Некорректный размер страницы: size = " + size);
+        }
+    }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class AvailabilityDto {
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Boolean available;
+    // ближайшее начало свободного периода той же длительности, не раньше start
+    private LocalDateTime nextFreeStart;
+}
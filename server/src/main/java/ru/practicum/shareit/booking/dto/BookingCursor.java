@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+/**
+ * Курсор страницы бронирований: списки упорядочены по убыванию (start, id),
+ * страница начинается с первого бронирования, идущего строго после курсора
+ */
+public record BookingCursor(LocalDateTime start, long id) {
+    // курсор первой страницы, находится позже любого бронирования
+    public static final BookingCursor FIRST_PAGE =
+            new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    /**
+     * курсор по параметрам запроса: без start - первая страница, без id - все бронирования с началом не позже start;
+     * id без start не задаёт позицию в списке
+     */
+    public static BookingCursor of(LocalDateTime start, Long id) {
+        if (start == null) {
+            if (id != null) {
+                throw new ValidationException("Параметр afterId передаётся только вместе с afterStart");
+            }
+            return FIRST_PAGE;
+        }
+        return new BookingCursor(start, id == null ? Long.MAX_VALUE : id);
+    }
+}
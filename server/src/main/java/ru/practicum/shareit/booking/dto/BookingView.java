@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование с item и booker одной строкой результата запроса, без загрузки сущностей
+ */
+@Data
+@AllArgsConstructor
+public class BookingView {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Booking.Status status;
+    private Long itemId;
+    private String itemName;
+    private String itemDescription;
+    private Boolean itemAvailable;
+    private Long itemRequestId;
+    private Long bookerId;
+    private String bookerName;
+    private String bookerEmail;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.event;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.outbox.DomainEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * бронирование создано или изменён его статус
+ */
+public record BookingSavedEvent(long bookingId, long itemId, LocalDateTime start, LocalDateTime end,
+                                Booking.Status status) implements DomainEvent {
+}
@@ -50,6 +50,13 @@ public class ExceptionHandlerControllerAdvice {
         return new ErrorResponse(ex.getMessage());
     }
 
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(BookingConflictException.class)
+    public ErrorResponse handleBookingConflictException(BookingConflictException ex) {
+        log.warn("Конфликт бронирования: {}", ex.getMessage());
+        return new ErrorResponse(ex.getMessage());
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(CommentException.class)
     public ErrorResponse handleCommentException(CommentException ex) {
@@ -57,6 +64,13 @@ public class ExceptionHandlerControllerAdvice {
         return new ErrorResponse(ex.getMessage());
     }
 
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(ValidationException.class)
+    public ErrorResponse handleValidationException(ValidationException ex) {
+        log.warn("Ошибка валидации: {}", ex.getMessage());
+        return new ErrorResponse(ex.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse error(Exception e) {
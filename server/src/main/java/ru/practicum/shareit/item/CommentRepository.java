@@ -1,14 +1,41 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
 import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItem(Item item);
+    /**
+     * страница комментариев item по убыванию (created, id), начиная строго после курсора
+     */
+    @Query("""
+            select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, c.author.name, c.created)
+            from Comment as c
+            where c.item.id = ?1
+            and (c.created, c.id) < (?2, ?3)
+            order by c.created desc, c.id desc
+            limit ?4""")
+    List<CommentDto> findItemComments(long itemId, LocalDateTime afterCreated, long afterId, int size);
 
-    List<Comment> findByItemIn(Collection<Item> items);
-}
\ No newline at end of file
+    /**
+     * не больше size последних комментариев каждого item
+     */
+    @Query("""
+            select new ru.practicum.shareit.item.dto.ItemCommentDto(c.item.id, c.id, c.text, c.author.name, c.created)
+            from Comment as c
+            where c.id in (
+                select t.id from (
+                    select r.id as id,
+                           row_number() over (partition by r.item.id order by r.created desc, r.id desc) as position
+                    from Comment as r
+                    where r.item.id in ?1) as t
+                where t.position <= ?2)
+            order by c.item.id, c.created desc, c.id desc""")
+    List<ItemCommentDto> findLatestItemsComments(Collection<Long> itemIds, int size);
+}
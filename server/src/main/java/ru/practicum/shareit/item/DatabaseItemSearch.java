@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.ItemMapper;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Поиск одним запросом к БД по названию и описанию.
+ * В PostgreSQL запрос обслуживается триграммными GIN индексами (schema-postgresql.sql),
+ * в H2 выполняется обычный LIKE.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "database")
+@RequiredArgsConstructor
+public class DatabaseItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        return itemMapper.toDto(itemRepository.findAvailableByText(containsPattern(text), from, size));
+    }
+
+    // шаблон LIKE '%text%', символы % и _ из строки поиска экранируются
+    static String containsPattern(String text) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -1,11 +1,14 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,6 +24,12 @@ public class ItemController {
         return itemService.createNewItem(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public ItemImportResultDto importItems(@RequestBody List<ItemDto> itemDtos,
+                                           @RequestHeader(USER_ID_HEADER) long userId) {
+        return itemService.importItems(itemDtos, userId);
+    }
+
     @GetMapping("/{itemId}")
     public ItemExtendDto get(@PathVariable long itemId) {
         return itemService.getItem(itemId);
@@ -40,8 +49,10 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> searchItems(@RequestParam String text) {
-        return itemService.searchByText(text);
+    public List<ItemDto> searchItems(@RequestParam String text,
+                                     @RequestParam(defaultValue = "0") int from,
+                                     @RequestParam(defaultValue = "10") int size) {
+        return itemService.searchByText(text, from, size);
     }
 
     @DeleteMapping("/{itemId}")
@@ -51,6 +62,18 @@ public class ItemController {
         itemService.deleteItem(itemId, userId);
     }
 
+    /**
+     * получить страницу комментариев item по убыванию (created, id)
+     */
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@PathVariable long itemId,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+                                        @RequestParam(required = false) Long afterId,
+                                        @RequestParam(defaultValue = "10") int size) {
+        return itemService.getItemComments(itemId, CommentCursor.of(afterCreated, afterId), size);
+    }
+
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@PathVariable long itemId,
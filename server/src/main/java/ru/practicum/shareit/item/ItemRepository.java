@@ -1,19 +1,62 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwner_Id(Long ownerId);
+    /**
+     * item владельца сразу в виде ItemSummaryDto, без загрузки сущностей
+     */
+    @Query("""
+            select new ru.practicum.shareit.item.dto.ItemSummaryDto(i.id, i.name, i.description, i.available,
+                i.commentCount, i.lastCommentAt)
+            from Item as i
+            where i.owner.id = ?1
+            order by i.id""")
+    List<ItemSummaryDto> findItemSummariesByOwner_Id(long ownerId);
+
+    List<Item> findByAvailableTrue();
 
-    List<Item> findItemsByNameContainingIgnoreCaseAndAvailableTrue(String text);
+    /**
+     * пересчёт счётчика и времени последнего комментария item, которые комментировал пользователь,
+     * без его комментариев; выполняется перед удалением пользователя, комментарии удаляются ON DELETE CASCADE
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE items SET
+                comment_count = (SELECT COUNT(*) FROM comments AS c WHERE c.item_id = items.id AND c.author_id <> ?1),
+                last_comment_at = (SELECT MAX(c.created) FROM comments AS c WHERE c.item_id = items.id AND c.author_id <> ?1)
+            WHERE id IN (SELECT item_id FROM comments WHERE author_id = ?1)""", nativeQuery = true)
+    int recountCommentsWithoutAuthor(long authorId);
 
-    List<Item> findItemsByDescriptionContainingIgnoreCaseAndAvailableTrue(String text);
+    /**
+     * item с блокировкой строки до конца транзакции, сериализует подтверждение бронирований одного item
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item as i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(long itemId);
+
+    /**
+     * доступные item, название или описание которых соответствует шаблону LIKE в нижнем регистре;
+     * совпадения по названию идут первыми, offset и limit применяются в самом запросе
+     */
+    @Query("""
+            select i from Item as i
+            where i.available = true
+            and (lower(i.name) like ?1 escape '\\' or lower(i.description) like ?1 escape '\\')
+            order by case when lower(i.name) like ?1 escape '\\' then 0 else 1 end, i.id
+            limit ?3 offset ?2""")
+    List<Item> findAvailableByText(String pattern, int from, int size);
 
     @Query("""
             select new ru.practicum.shareit.item.dto.ItemShortDto(i.id, i.name, i.owner.id, i.itemRequest.id)
@@ -24,6 +67,6 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("""
             select new ru.practicum.shareit.item.dto.ItemShortDto(i.id, i.name, i.owner.id, i.itemRequest.id)
             from Item as i
-            where i.itemRequest in ?1""")
-    List<ItemShortDto> findItemsByRequests(Collection<ItemRequest> itemRequests);
+            where i.itemRequest.id in ?1""")
+    List<ItemShortDto> findItemsByRequestIds(Collection<Long> requestIds);
 }
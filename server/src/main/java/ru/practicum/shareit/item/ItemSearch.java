@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+/**
+ * Поиск доступных для аренды item по подстроке в названии или описании.
+ * Реализация выбирается свойством shareit.item-search.mode
+ */
+public interface ItemSearch {
+    /**
+     * страница результатов поиска: сначала совпадения по названию, затем по описанию, внутри - по id
+     */
+    List<ItemDto> search(String text, int from, int size);
+}
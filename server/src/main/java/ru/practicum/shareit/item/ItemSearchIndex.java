@@ -0,0 +1,243 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания доступных для аренды item.
+ * Поиск подстроки выполняется в памяти, без обращения к БД.
+ * Индекс строится при старте приложения и обновляется после коммита транзакций, изменяющих item.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.mode", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSearchIndex implements ItemSearch {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    // изменения, применённые во время перестроения индекса; null, если перестроение не идёт
+    private List<Runnable> changesDuringRebuild;
+
+    /**
+     * перестроить индекс по БД. Изменения item, закоммиченные во время чтения из БД, могли не попасть в прочитанный
+     * список, поэтому они запоминаются и повторно применяются к построенному индексу
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            List<Item> items = readItemsRecordingChanges();
+            lock.writeLock().lock();
+            try {
+                entries.clear();
+                postings.clear();
+                items.forEach(item -> add(Entry.of(item.getId(),
+                        item.getOwner().getId(),
+                        item.getName(),
+                        item.getDescription(),
+                        item.getItemRequest() == null ? null : item.getItemRequest().getId())));
+                changesDuringRebuild.forEach(Runnable::run);
+                log.info("Построен поисковый индекс item: {} записей, {} триграмм, применено изменений: {}",
+                        entries.size(), postings.size(), changesDuringRebuild.size());
+            } finally {
+                changesDuringRebuild = null;
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        put(event.item(), event.ownerId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        remove(event.itemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        apply(() -> {
+            List<Long> ownerItems = entries.values().stream()
+                    .filter(entry -> entry.ownerId() == event.userId())
+                    .map(Entry::id)
+                    .toList();
+            ownerItems.forEach(this::delete);
+        });
+    }
+
+    /**
+     * добавить или обновить item в индексе, недоступные для аренды item из индекса удаляются
+     */
+    public void put(ItemDto item, long ownerId) {
+        apply(() -> {
+            delete(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                add(Entry.of(item.getId(), ownerId, item.getName(), item.getDescription(), item.getRequestId()));
+            }
+        });
+    }
+
+    public void remove(long itemId) {
+        apply(() -> delete(itemId));
+    }
+
+    /**
+     * найти доступные item, название или описание которых содержит text без учёта регистра
+     */
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            return candidates(query).stream()
+                    .map(entries::get)
+                    .filter(entry -> entry.contains(query))
+                    .sorted(Comparator.comparing((Entry entry) -> !entry.nameContains(query))
+                            .thenComparing(Entry::id))
+                    .skip(from)
+                    .limit(size)
+                    .map(Entry::toDto)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Item> readItemsRecordingChanges() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            return itemRepository.findByAvailableTrue();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+    }
+
+    // изменение применяется к индексу сразу, а во время перестроения ещё и запоминается для повторного применения
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // пересечение списков по всем триграммам запроса, начиная с самого короткого
+    private Collection<Long> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return entries.keySet();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : gramsOf(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.getFirst());
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id(), entry);
+        for (String gram : entry.grams()) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(entry.id());
+        }
+    }
+
+    private void delete(long itemId) {
+        Entry entry = entries.remove(itemId);
+        if (entry == null) {
+            return;
+        }
+        for (String gram : entry.grams()) {
+            Set<Long> ids = postings.get(gram);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(long id, long ownerId, String name, String description, Long requestId,
+                         String normalizedName, String normalizedDescription) {
+        static Entry of(long id, long ownerId, String name, String description, Long requestId) {
+            return new Entry(id, ownerId, name, description, requestId, normalize(name), normalize(description));
+        }
+
+        boolean contains(String query) {
+            return nameContains(query) || normalizedDescription.contains(query);
+        }
+
+        boolean nameContains(String query) {
+            return normalizedName.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = gramsOf(normalizedName);
+            grams.addAll(gramsOf(normalizedDescription));
+            return grams;
+        }
+
+        ItemDto toDto() {
+            return new ItemDto(id, name, description, Boolean.TRUE, requestId);
+        }
+    }
+}
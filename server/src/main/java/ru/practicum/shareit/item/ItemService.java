@@ -3,17 +3,28 @@ package ru.practicum.shareit.item;
 import ru.practicum.shareit.item.dto.*;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
     ItemDto createNewItem(ItemDto dto, long userId);
 
     ItemDto updateItem(ItemDto dto, long itemId, long userId);
 
+    /**
+     * сохранить item пользователя в одной транзакции, строки со ссылкой на несуществующий запрос вещи пропускаются
+     */
+    ItemImportResultDto importItems(List<ItemDto> dtos, long userId);
+
     ItemExtendDto getItem(long itemId);
 
     Collection<ItemExtendDto> getUserItems(long userId);
 
-    Collection<ItemDto> searchByText(String text);
+    /**
+     * страница комментариев item по убыванию (created, id)
+     */
+    List<CommentDto> getItemComments(long itemId, CommentCursor after, int size);
+
+    List<ItemDto> searchByText(String text, int from, int size);
 
     void deleteItem(long itemId, long userId);
 
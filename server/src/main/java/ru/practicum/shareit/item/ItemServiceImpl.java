@@ -2,23 +2,37 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.exception.CommentException;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.CommentMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestAnswer;
+import ru.practicum.shareit.request.dto.ItemResponse;
+import ru.practicum.shareit.request.event.ItemRequestAnsweredEvent;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,11 +41,20 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
+    private final ItemSearch itemSearch;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final SingleFlight<Long, ItemExtendDto> itemReads = new SingleFlight<>();
+
+    // число последних комментариев в ItemExtendDto
+    @Value("${shareit.item-comments.preview-size:10}")
+    private int commentPreviewSize;
 
     @Override
     @Transactional
@@ -39,15 +62,53 @@ public class ItemServiceImpl implements ItemService {
         log.debug("Запрос на создание нового item: name = {}, owner_id = {}, request_id = {}",
                 dto.getName(), userId, dto.getRequestId());
 
-        User user = getUserOrElseThrow(userId);
+        User user = userExistenceCache.getReference(userId);
         ItemRequest itemRequest = getItemRequestOrElseThrow(dto.getRequestId());
         Item item = itemMapper.toItem(dto, user, itemRequest);
-        item = itemRepository.save(item);
+        item = itemRepository.saveAndFlush(item);
 
         log.info("Создан новый item id = {}, name = {}, owner_id = {}, request_id = {}",
                 item.getId(), item.getName(), userId, dto.getRequestId());
 
-        return itemMapper.toDto(item);
+        ItemDto itemDto = itemMapper.toDto(item);
+        eventPublisher.publishEvent(new ItemSavedEvent(itemDto, userId));
+        publishAnswer(item, itemRequest);
+        return itemDto;
+    }
+
+    @Override
+    @Transactional
+    public ItemImportResultDto importItems(List<ItemDto> dtos, long userId) {
+        log.debug("Запрос на импорт item: количество = {}, owner_id = {}", dtos.size(), userId);
+
+        User user = userExistenceCache.getReference(userId);
+        Set<Long> requestIds = dtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<Item> items = new ArrayList<>(dtos.size());
+        List<ItemImportErrorDto> errors = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            ItemDto dto = dtos.get(i);
+            if (dto.getRequestId() != null && !requests.containsKey(dto.getRequestId())) {
+                errors.add(new ItemImportErrorDto(i + 1, "ItemRequest id = " + dto.getRequestId() + " не существует"));
+            } else {
+                items.add(itemMapper.toItem(dto, user, requests.get(dto.getRequestId())));
+            }
+        }
+        // идентификаторы выдаются последовательностью, вставки отправляются пакетами
+        itemRepository.saveAll(items);
+        itemRepository.flush();
+
+        log.info("Импортировано item: {}, ошибок: {}, owner_id = {}", items.size(), errors.size(), userId);
+        items.forEach(item -> {
+            eventPublisher.publishEvent(new ItemSavedEvent(itemMapper.toDto(item), userId));
+            publishAnswer(item, item.getItemRequest());
+        });
+        return new ItemImportResultDto(dtos.size(), items.size(), errors);
     }
 
     @Override
@@ -57,8 +118,8 @@ public class ItemServiceImpl implements ItemService {
                 itemId, dto.getName(), dto.getAvailable(), userId);
 
         Item item = getItemOrElseThrow(itemId);
-        User user = getUserOrElseThrow(userId);
-        if (!item.getOwner().equals(user)) {
+        userExistenceCache.requireExists(userId);
+        if (item.getOwner().getId() != userId) {
             throw new NotFoundException("Пользователь id = " + userId + " не является владельцем item id = " + item.getId());
         }
         itemMapper.updateItem(item, dto);
@@ -67,55 +128,73 @@ public class ItemServiceImpl implements ItemService {
         log.info("Обновлён item: id = {}, name = {}, available = {}, owner_id = {}",
                 itemId, item.getName(), item.getAvailable(), userId);
 
-        return itemMapper.toDto(item);
+        ItemDto itemDto = itemMapper.toDto(item);
+        eventPublisher.publishEvent(new ItemSavedEvent(itemDto, userId));
+        return itemDto;
     }
 
+    /*
+     * Одновременные запросы одного item получают результат одной загрузки из БД.
+     * Объединение выполняется вне транзакции, ожидающие запросы не занимают соединения с БД
+     */
     @Override
     public ItemExtendDto getItem(long itemId) {
-        Item item = getItemOrElseThrow(itemId);
-        List<Comment> comments = commentRepository.findByItem(item);
-        return itemMapper.toExtendDto(item, comments, null, null);
+        return itemReads.load(itemId, () -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            return transaction.execute(status -> loadItem(itemId));
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<ItemExtendDto> getUserItems(long userId) {
-        getUserOrElseThrow(userId);
-        List<Item> items = itemRepository.findByOwner_Id(userId);
-
-        // получаем следующее и последнее бронирование для всех item пользователя
-       // List<Booking> futureBookings = bookingRepository.findFutureBookingByItemOwner_Id(userId);
-        List<Booking> futureBookings = bookingRepository.findFutureBookingByItems(items);
-        Map<Item, List<Booking>> itemsBookings = futureBookings.stream().collect(Collectors.groupingBy(Booking::getItem));
-        Map<Item, Booking> itemsNextBooking = new HashMap<>();
-        Map<Item, Booking> itemsLastBooking = new HashMap<>();
-        itemsBookings.forEach((item, booking) -> {
-            Booking next = booking.stream().min(Comparator.comparing(Booking::getStart)).orElse(null);
-            Booking last = booking.stream().max(Comparator.comparing(Booking::getStart)).orElse(null);
-            itemsNextBooking.put(item, next);
-            itemsLastBooking.put(item, last);
-        });
+        userExistenceCache.requireExists(userId);
+        List<ItemSummaryDto> items = itemRepository.findItemSummariesByOwner_Id(userId);
 
-        // получаем комментарии для всех item пользователя
-        List<Comment> itemsComments = commentRepository.findByItemIn(items);
-        Map<Item, List<Comment>> itemsCommentsMap = itemsComments.stream().collect(Collectors.groupingBy(Comment::getItem));
+        // начало последнего и следующего бронирования для всех item пользователя, одна строка на item
+        Map<Long, ItemBookingDates> itemsBookingDates = bookingRepository.findBookingDatesByItemOwner_Id(userId).stream()
+                .collect(Collectors.toMap(ItemBookingDates::itemId, Function.identity()));
 
-        return items.stream().map(item -> itemMapper.toExtendDto(
-                item,
-                itemsCommentsMap.getOrDefault(item, Collections.emptyList()),
-                itemsNextBooking.get(item),
-                itemsLastBooking.get(item)))
+        // последние комментарии всех item пользователя одним запросом, число комментариев хранится в item
+        List<Long> itemIds = items.stream().map(ItemSummaryDto::id).toList();
+        Map<Long, List<CommentDto>> itemsCommentsMap = commentRepository.findLatestItemsComments(itemIds, commentPreviewSize)
+                .stream()
+                .collect(Collectors.groupingBy(ItemCommentDto::itemId,
+                        Collectors.mapping(ItemCommentDto::toCommentDto, Collectors.toList())));
+
+        return items.stream().map(item -> {
+                    ItemBookingDates dates = itemsBookingDates.get(item.id());
+                    return itemMapper.toExtendDto(
+                            item,
+                            itemsCommentsMap.getOrDefault(item.id(), Collections.emptyList()),
+                            dates == null ? null : dates.nextBooking(),
+                            dates == null ? null : dates.lastBooking());
+                })
                 .toList();
     }
 
     @Override
-    public Collection<ItemDto> searchByText(String text) {
+    @Transactional(readOnly = true)
+    public List<CommentDto> getItemComments(long itemId, CommentCursor after, int size) {
+        if (size <= 0) {
+            throw new ValidationException("Некорректный размер страницы: size = " + size);
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item id = " + itemId + " не существует");
+        }
+        return commentRepository.findItemComments(itemId, after.created(), after.id(), size);
+    }
+
+    @Override
+    public List<ItemDto> searchByText(String text, int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры страницы: from = " + from + ", size = " + size);
+        }
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        HashSet<Item> findItems = new HashSet<>();
-        findItems.addAll(itemRepository.findItemsByNameContainingIgnoreCaseAndAvailableTrue(text));
-        findItems.addAll(itemRepository.findItemsByDescriptionContainingIgnoreCaseAndAvailableTrue(text));
-        return itemMapper.toDto(findItems);
+        return itemSearch.search(text, from, size);
     }
 
     @Override
@@ -128,6 +207,7 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Пользователь id = " + userId + " не является владельцем item id = " + item.getId());
         }
         itemRepository.delete(item);
+        eventPublisher.publishEvent(new ItemDeletedEvent(itemId));
 
         log.info("Удалён item: id = {}", item.getId());
     }
@@ -137,7 +217,9 @@ public class ItemServiceImpl implements ItemService {
     public CommentDto addComment(CommentCreateDto commentCreateDto, long itemId, long userId) {
         log.debug("Запрос на добавление комментария к item_id = {}, author_id = {}", itemId, userId);
 
-        Item item = getItemOrElseThrow(itemId);
+        // блокировка строки item: одновременные комментарии не теряют увеличение счётчика
+        Item item = itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Item id = " + itemId + " не существует"));
         User user = getUserOrElseThrow(userId);
         List<Booking> bookings = bookingRepository.findCompletedBookingsByItemIdAndUserId(itemId, userId);
         if (bookings.isEmpty()) {
@@ -145,12 +227,47 @@ public class ItemServiceImpl implements ItemService {
                     + userId + " не арендовал item id = " + itemId);
         }
         Comment comment = commentMapper.toComment(commentCreateDto, item, user);
-        commentRepository.save(comment);
+        commentRepository.saveAndFlush(comment);
+        item.addComment(comment);
+        eventPublisher.publishEvent(new CommentAddedEvent(comment.getId(), itemId, userId));
 
         log.info("Добавлен новый комментарий: id = {}, item_id = {}, author_id = {}", comment.getId(), itemId, userId);
         return commentMapper.toDto(comment);
     }
 
+    /*
+     * После коммита изменения item вызовы getItem не присоединяются к загрузке, начатой до изменения.
+     * События других экземпляров приходят из outbox
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        itemReads.forget(event.item().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        itemReads.forget(event.itemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        itemReads.forget(event.itemId());
+    }
+
+    private void publishAnswer(Item item, ItemRequest itemRequest) {
+        if (itemRequest == null) return;
+        ItemResponse response = new ItemResponse(item.getId(), item.getName(), item.getOwner().getId());
+        eventPublisher.publishEvent(new ItemRequestAnsweredEvent(
+                new ItemRequestAnswer(itemRequest.getId(), itemRequest.getAuthor().getId(), response)));
+    }
+
+    private ItemExtendDto loadItem(long itemId) {
+        Item item = getItemOrElseThrow(itemId);
+        List<CommentDto> comments = commentRepository.findItemComments(
+                itemId, CommentCursor.FIRST_PAGE.created(), CommentCursor.FIRST_PAGE.id(), commentPreviewSize);
+        return itemMapper.toExtendDto(item, comments, null, null);
+    }
+
     private Item getItemOrElseThrow(long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item id = " + itemId + " не существует"));
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных загрузок по одному ключу: первый вызов выполняет загрузку,
+ * вызовы, пришедшие до её завершения, получают тот же результат или то же исключение.
+ * Результат не кешируется, следующая загрузка после завершения выполняется заново.
+ * После изменения данных ключ забывается через forget: вызовы, пришедшие после этого,
+ * не присоединяются к загрузке, начатой до изменения
+ */
+final class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            V value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * текущая загрузка по ключу завершается, но следующие вызовы начинают новую
+     */
+    void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
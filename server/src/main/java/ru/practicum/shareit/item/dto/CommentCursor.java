@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Курсор страницы комментариев item: список упорядочен по убыванию (created, id),
+ * страница начинается с первого комментария, идущего строго после курсора
+ */
+public record CommentCursor(LocalDateTime created, long id) {
+    // курсор первой страницы, находится позже любого комментария
+    public static final CommentCursor FIRST_PAGE =
+            new CommentCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    /**
+     * курсор по параметрам запроса: без created - первая страница, без id - все комментарии, созданные не позже created
+     */
+    public static CommentCursor of(LocalDateTime created, Long id) {
+        if (created == null) {
+            return FIRST_PAGE;
+        }
+        return new CommentCursor(created, id == null ? Long.MAX_VALUE : id);
+    }
+}
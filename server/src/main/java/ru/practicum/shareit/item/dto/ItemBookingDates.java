@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * начало последнего (уже начавшегося) и следующего подтверждённого бронирования item
+ */
+public record ItemBookingDates(Long itemId, LocalDateTime lastBooking, LocalDateTime nextBooking) {
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * комментарий вместе с id item, к которому он оставлен
+ */
+public record ItemCommentDto(Long itemId, Long id, String text, String authorName, LocalDateTime created) {
+    public CommentDto toCommentDto() {
+        return new CommentDto(id, text, authorName, created);
+    }
+}
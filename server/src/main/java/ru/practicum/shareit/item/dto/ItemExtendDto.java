@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -16,6 +17,9 @@ public class ItemExtendDto {
     private String name;
     private String description;
     private Boolean available;
+    private int commentCount;
+    private LocalDateTime lastCommentAt;
+    // последние комментарии, остальные - в GET /items/{itemId}/comments
     private List<CommentDto> comments;
     private String lastBooking;
     private String nextBooking;
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * строка импорта, не сохранённая из-за ошибки; строки нумеруются с 1 в порядке получения
+ */
+public record ItemImportErrorDto(long row, String message) {
+}
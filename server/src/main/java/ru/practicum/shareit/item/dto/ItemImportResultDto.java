@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.List;
+
+/**
+ * итог импорта: получено строк, сохранено item, ошибки по строкам
+ */
+public record ItemImportResultDto(int received, int created, List<ItemImportErrorDto> errors) {
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * item владельца вместе с числом комментариев и временем последнего комментария
+ */
+public record ItemSummaryDto(Long id, String name, String description, Boolean available,
+                             int commentCount, LocalDateTime lastCommentAt) {
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.event;
+
+import ru.practicum.shareit.outbox.DomainEvent;
+
+/**
+ * к item добавлен комментарий
+ */
+public record CommentAddedEvent(long commentId, long itemId, long authorId) implements DomainEvent {
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.event;
+
+import ru.practicum.shareit.outbox.DomainEvent;
+
+/**
+ * item удалён
+ */
+public record ItemDeletedEvent(long itemId) implements DomainEvent {
+}
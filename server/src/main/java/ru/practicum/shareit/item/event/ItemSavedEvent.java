@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.event;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.outbox.DomainEvent;
+
+/**
+ * item создан или обновлён
+ */
+public record ItemSavedEvent(ItemDto item, long ownerId) implements DomainEvent {
+}
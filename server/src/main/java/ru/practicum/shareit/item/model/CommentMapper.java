@@ -11,6 +11,7 @@ import java.util.List;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface CommentMapper {
+    // обращается к author, комментарии для чтения загружаются проекциями CommentRepository сразу в CommentDto
     @Mapping(source = "author.name", target = "authorName")
     CommentDto toDto(Comment comment);
 
@@ -1,22 +1,25 @@
 package ru.practicum.shareit.item.model;
 
 import org.mapstruct.*;
-import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
 
-@Mapper(uses = {CommentMapper.class},
-        componentModel = MappingConstants.ComponentModel.SPRING,
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
         injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface ItemMapper {
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "lastCommentAt", ignore = true)
     @Mapping(target = "name", source = "dto.name")
     @Mapping(target = "description", source = "dto.description")
     Item toItem(ItemDto dto, User owner, ItemRequest itemRequest);
@@ -30,10 +33,17 @@ public interface ItemMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "owner", ignore = true)
     @Mapping(target = "itemRequest", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "lastCommentAt", ignore = true)
     void updateItem(@MappingTarget Item item, ItemDto dto);
 
     @Mapping(target = "id", source = "item.id")
-    @Mapping(target = "nextBooking", source = "next.start")
-    @Mapping(target = "lastBooking", source = "last.start")
-    ItemExtendDto toExtendDto(Item item, List<Comment> comments, Booking next, Booking last);
+    @Mapping(target = "nextBooking", source = "next")
+    @Mapping(target = "lastBooking", source = "last")
+    ItemExtendDto toExtendDto(Item item, List<CommentDto> comments, LocalDateTime next, LocalDateTime last);
+
+    @Mapping(target = "id", source = "item.id")
+    @Mapping(target = "nextBooking", source = "next")
+    @Mapping(target = "lastBooking", source = "last")
+    ItemExtendDto toExtendDto(ItemSummaryDto item, List<CommentDto> comments, LocalDateTime next, LocalDateTime last);
 }
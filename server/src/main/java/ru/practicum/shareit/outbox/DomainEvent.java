@@ -0,0 +1,8 @@
+package ru.practicum.shareit.outbox;
+
+/**
+ * Событие изменения данных. Записывается в outbox в транзакции изменения,
+ * другие экземпляры сервера получают его из outbox, см. OutboxDispatcher
+ */
+public interface DomainEvent {
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Доставка событий, записанных в outbox другими экземплярами сервера, слушателям этого экземпляра:
+ * кэшам, индексу поиска, ленте и потоку запросов вещей. События своего экземпляра слушатели получают сразу после коммита.
+ * <p>
+ * Каждый опрос читает пакетами события за последние lookback по времени БД: событие становится видимым только
+ * после коммита, поэтому окно перечитывается, уже доставленные события пропускаются. Строка outbox вставляется
+ * непосредственно перед коммитом, а в PostgreSQL created - время вставки (clock_timestamp), поэтому длительность
+ * транзакции не важна, lookback должен превышать только задержку между вставкой и коммитом.
+ * <p>
+ * Событие, слушатель которого завершился с ошибкой, запоминается и доставляется повторно при каждом опросе
+ * независимо от окна, пока не истечёт срок хранения retention; после этого событие пропускается с ошибкой в логе.
+ * Слушатели должны допускать повторы
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+    private final OutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final String origin;
+    private final int batchSize;
+    private final Duration lookback;
+    private final Duration retention;
+    private final boolean enabled;
+    // доставленные события окна: id -> created
+    private final Map<Long, LocalDateTime> delivered = new HashMap<>();
+    // события, доставка которых завершилась ошибкой: id -> событие
+    private final Map<Long, OutboxEntry> pending = new LinkedHashMap<>();
+
+    public OutboxDispatcher(OutboxRepository outboxRepository,
+                            OutboxRecorder outboxRecorder,
+                            ApplicationEventPublisher eventPublisher,
+                            ObjectMapper objectMapper,
+                            @Value("${shareit.outbox.batch-size:100}") int batchSize,
+                            @Value("${shareit.outbox.lookback:5s}") Duration lookback,
+                            @Value("${shareit.outbox.retention:1h}") Duration retention,
+                            @Value("${shareit.outbox.dispatch-enabled:true}") boolean enabled) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.origin = outboxRecorder.origin();
+        this.batchSize = batchSize;
+        this.lookback = lookback;
+        this.retention = retention;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-interval-ms:1000}")
+    public void scheduledDispatch() {
+        if (enabled) {
+            dispatch();
+        }
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void scheduledCleanup() {
+        if (enabled) {
+            int deleted = outboxRepository.deleteCreatedBefore(outboxRepository.now().minus(retention));
+            log.debug("Удалено событий outbox старше {}: {}", retention, deleted);
+        }
+    }
+
+    /**
+     * @return число обработанных событий
+     */
+    public synchronized int dispatch() {
+        LocalDateTime now = outboxRepository.now();
+        LocalDateTime since = now.minus(lookback);
+        delivered.values().removeIf(created -> created.isBefore(since));
+
+        int count = retryPending(now.minus(retention));
+        LocalDateTime afterCreated = since;
+        long afterId = 0;
+        List<OutboxEntry> batch;
+        do {
+            batch = outboxRepository.findOthersAfter(origin, afterCreated, afterId, batchSize);
+            for (OutboxEntry entry : batch) {
+                afterCreated = entry.getCreated();
+                afterId = entry.getId();
+                if (delivered.containsKey(entry.getId()) || pending.containsKey(entry.getId())) {
+                    continue;
+                }
+                delivered.put(entry.getId(), entry.getCreated());
+                if (deliver(entry)) {
+                    count++;
+                } else {
+                    pending.put(entry.getId(), entry);
+                }
+            }
+        } while (batch.size() == batchSize);
+
+        if (count > 0) {
+            log.debug("Обработано событий outbox других экземпляров: {}", count);
+        }
+        return count;
+    }
+
+    private int retryPending(LocalDateTime expired) {
+        int count = 0;
+        Iterator<OutboxEntry> entries = pending.values().iterator();
+        while (entries.hasNext()) {
+            OutboxEntry entry = entries.next();
+            if (deliver(entry)) {
+                entries.remove();
+                count++;
+            } else if (entry.getCreated().isBefore(expired)) {
+                entries.remove();
+                log.error("Событие outbox id = {}, type = {} не доставлено за {} и пропущено",
+                        entry.getId(), entry.getType(), retention);
+            }
+        }
+        return count;
+    }
+
+    private boolean deliver(OutboxEntry entry) {
+        Object event;
+        try {
+            Class<?> type = ClassUtils.forName(entry.getType(), getClass().getClassLoader());
+            if (!DomainEvent.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException("Тип " + type + " не является DomainEvent");
+            }
+            event = objectMapper.readValue(entry.getPayload(), type);
+        } catch (ClassNotFoundException | IOException | IllegalArgumentException e) {
+            // повторная доставка не поможет
+            log.error("Пропущено событие outbox id = {}, type = {}: {}", entry.getId(), entry.getType(), e.getMessage());
+            return true;
+        }
+        try {
+            eventPublisher.publishEvent(event);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Ошибка доставки события outbox id = {}, будет повторена: {}", entry.getId(), e.getMessage());
+            return false;
+        }
+    }
+}
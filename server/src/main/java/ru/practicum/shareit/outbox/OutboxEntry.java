@@ -0,0 +1,37 @@
+package ru.practicum.shareit.outbox;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox")
+@Getter
+@Setter
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    // полное имя класса события
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    // экземпляр сервера, записавший событие
+    @Column(name = "origin", nullable = false)
+    private String origin;
+
+    // время БД, общее для всех экземпляров сервера
+    @Column(name = "created", insertable = false, updatable = false)
+    private LocalDateTime created;
+}
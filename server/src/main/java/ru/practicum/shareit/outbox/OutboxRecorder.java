@@ -0,0 +1,39 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * Запись событий изменения данных в outbox перед коммитом, в той же транзакции, что и само изменение.
+ * События, опубликованные вне транзакции (в том числе доставленные из outbox), не записываются
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxRecorder {
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final String origin = UUID.randomUUID().toString();
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void record(DomainEvent event) {
+        try {
+            outboxRepository.save(OutboxEntry.builder()
+                    .type(event.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .origin(origin)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось записать событие " + event + " в outbox", e);
+        }
+    }
+
+    public String origin() {
+        return origin;
+    }
+}
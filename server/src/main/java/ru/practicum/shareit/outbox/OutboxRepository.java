@@ -0,0 +1,28 @@
+package ru.practicum.shareit.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEntry, Long> {
+    @Query("""
+            select e
+            from OutboxEntry as e
+            where e.origin <> ?1
+            and (e.created, e.id) > (?2, ?3)
+            order by e.created, e.id
+            limit ?4""")
+    List<OutboxEntry> findOthersAfter(String origin, LocalDateTime afterCreated, long afterId, int size);
+
+    @Query(value = "SELECT LOCALTIMESTAMP", nativeQuery = true)
+    LocalDateTime now();
+
+    @Modifying
+    @Transactional
+    @Query("delete from OutboxEntry as e where e.created < ?1")
+    int deleteCreatedBefore(LocalDateTime created);
+}
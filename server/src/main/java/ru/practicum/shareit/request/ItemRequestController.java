@@ -1,11 +1,16 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponses;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -13,6 +18,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemRequestController {
     private final ItemRequestService service;
+    private final ItemRequestStream stream;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -31,11 +37,23 @@ public class ItemRequestController {
     }
 
     /**
-     * получить список запросов других пользователей, исключая свои
+     * получить страницу запросов других пользователей, исключая свои, по убыванию (created, id)
      */
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllItemRequests(@RequestHeader(USER_ID_HEADER) long userId) {
-        return service.getOtherUsersRequests(userId);
+    public List<ItemRequestDto> getAllItemRequests(@RequestHeader(USER_ID_HEADER) long userId,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreated,
+                                                   @RequestParam(required = false) Long afterId,
+                                                   @RequestParam(defaultValue = "10") int size) {
+        return service.getOtherUsersRequests(userId, ItemRequestCursor.of(afterCreated, afterId), size);
+    }
+
+    /**
+     * подписаться на события о новых запросах вещей и ответах на них
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getEventStream() {
+        return stream.subscribe();
     }
 
     @GetMapping("/{requestId}")
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.request;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedEntry;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Начало ленты запросов вещей, общее для всех пользователей: последние windowSize запросов по убыванию (created, id).
+ * Окно загружается при первом обращении и перезагружается в фоне, если с загрузки прошло больше refreshInterval,
+ * до завершения перезагрузки ответы строятся по прежнему окну.
+ * Запросы этого экземпляра добавляются в окно после коммита, запросы других экземпляров - после доставки из outbox,
+ * с задержкой до периода опроса outbox; повторно доставленный запрос в окно не добавляется.
+ * Удаление пользователя сбрасывает окно
+ */
+@Component
+@Slf4j
+public class ItemRequestFeed {
+    private static final Comparator<ItemRequestFeedEntry> FEED_ORDER =
+            Comparator.comparing(ItemRequestFeedEntry::created)
+                    .thenComparingLong(ItemRequestFeedEntry::id)
+                    .reversed();
+    private static final String KEY = "head";
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final int windowSize;
+    private final LoadingCache<String, Window> window;
+
+    public ItemRequestFeed(ItemRequestRepository itemRequestRepository,
+                           @Value("${shareit.request-feed.window-size:1000}") int windowSize,
+                           @Value("${shareit.request-feed.refresh-interval:10s}") Duration refreshInterval) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.windowSize = windowSize;
+        this.window = Caffeine.newBuilder()
+                .refreshAfterWrite(refreshInterval)
+                .build(key -> load());
+    }
+
+    /**
+     * страница ленты без запросов пользователя userId;
+     * пусто, если окно закончилось раньше, чем набралась страница, и страницу нужно читать из БД
+     */
+    public Optional<List<ItemRequestDto>> page(long userId, ItemRequestCursor after, int size) {
+        Window current = window.get(KEY);
+        List<ItemRequestFeedEntry> entries = current.entries();
+        int position = Collections.binarySearch(entries,
+                new ItemRequestFeedEntry(after.id(), null, after.created(), 0), FEED_ORDER);
+        // курсор не входит в страницу
+        int from = position >= 0 ? position + 1 : -position - 1;
+
+        List<ItemRequestDto> page = new ArrayList<>(size);
+        for (int i = from; i < entries.size() && page.size() < size; i++) {
+            ItemRequestFeedEntry entry = entries.get(i);
+            if (entry.authorId() != userId) {
+                page.add(entry.toDto());
+            }
+        }
+        if (page.size() < size && !current.complete()) {
+            return Optional.empty();
+        }
+        return Optional.of(page);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        window.asMap().computeIfPresent(KEY, (key, current) -> current.with(event.request(), windowSize));
+    }
+
+    // запросы пользователя удаляются каскадно
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        window.invalidateAll();
+    }
+
+    private Window load() {
+        List<ItemRequestFeedEntry> entries = itemRequestRepository.findLatest(windowSize);
+        log.debug("Загружено начало ленты запросов вещей: {} запросов", entries.size());
+        return new Window(List.copyOf(entries), entries.size() < windowSize);
+    }
+
+    /**
+     * @param complete в окно входят все запросы вещей
+     */
+    private record Window(List<ItemRequestFeedEntry> entries, boolean complete) {
+        Window with(ItemRequestFeedEntry entry, int windowSize) {
+            List<ItemRequestFeedEntry> updated = new ArrayList<>(entries.size() + 1);
+            updated.addAll(entries);
+            int position = Collections.binarySearch(updated, entry, FEED_ORDER);
+            if (position >= 0) {
+                return this;
+            }
+            updated.add(-position - 1, entry);
+            boolean trimmed = updated.size() > windowSize;
+            if (trimmed) {
+                updated.removeLast();
+            }
+            return new Window(List.copyOf(updated), complete && !trimmed);
+        }
+    }
+}
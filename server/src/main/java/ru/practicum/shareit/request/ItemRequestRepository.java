@@ -1,12 +1,34 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.user.model.User;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedEntry;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findAllByAuthor_IdNotOrderByCreatedDesc(Long authorId);
+    @Query("""
+            select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created)
+            from ItemRequest as r
+            where r.author.id <> ?1
+            and (r.created, r.id) < (?2, ?3)
+            order by r.created desc, r.id desc
+            limit ?4""")
+    List<ItemRequestDto> findOtherUsersRequests(long userId, LocalDateTime afterCreated, long afterId, int size);
 
-    List<ItemRequest> findAllByAuthorOrderByCreatedDesc(User author);
+    @Query("""
+            select new ru.practicum.shareit.request.dto.ItemRequestFeedEntry(r.id, r.description, r.created, r.author.id)
+            from ItemRequest as r
+            order by r.created desc, r.id desc
+            limit ?1""")
+    List<ItemRequestFeedEntry> findLatest(int size);
+
+    @Query("""
+            select new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created)
+            from ItemRequest as r
+            where r.author.id = ?1
+            order by r.created desc""")
+    List<ItemRequestDto> findUserRequests(long userId);
 }
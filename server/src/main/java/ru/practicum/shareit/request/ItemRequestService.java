@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponses;
 
@@ -10,7 +11,7 @@ public interface ItemRequestService {
 
     List<ItemRequestWithResponses> getUserRequests(long userId);
 
-    List<ItemRequestDto> getOtherUsersRequests(long userId);
+    List<ItemRequestDto> getOtherUsersRequests(long userId, ItemRequestCursor after, int size);
 
     ItemRequestWithResponses getRequest(long requestId);
 }
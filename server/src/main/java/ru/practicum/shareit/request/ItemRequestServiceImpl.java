@@ -2,15 +2,20 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedEntry;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponses;
 import ru.practicum.shareit.request.dto.ItemResponse;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.user.UserExistenceCache;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.ArrayList;
@@ -22,29 +27,35 @@ import java.util.stream.Collectors;
 @Slf4j
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRequestMapper mapper;
+    private final ItemRequestFeed itemRequestFeed;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public ItemRequestDto createNewRequest(ItemRequestDto dto, long userId) {
         log.debug("Запрос на создание ItemRequest: user id = {}, description = {}", userId, dto.getDescription());
-        User author = getUserOrElseThrow(userId);
+        User author = userExistenceCache.getReference(userId);
         ItemRequest request = mapper.toItemRequest(dto, author);
-        itemRequestRepository.save(request);
+        itemRequestRepository.saveAndFlush(request);
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(new ItemRequestFeedEntry(
+                request.getId(), request.getDescription(), request.getCreated(), userId)));
         log.info("Создан новый ItemRequest: user id = {}, description = {}", userId, dto.getDescription());
         return mapper.toItemRequestDto(request);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestWithResponses> getUserRequests(long userId) {
         log.debug("Запрос на получение всех ItemRequest пользователя user id = {}", userId);
-        User author = getUserOrElseThrow(userId);
+        userExistenceCache.requireExists(userId);
 
-        List<ItemRequest> requests = itemRequestRepository.findAllByAuthorOrderByCreatedDesc(author);
-        List<ItemShortDto> itemShorts = itemRepository.findItemsByRequests(requests);
+        List<ItemRequestDto> requests = itemRequestRepository.findUserRequests(userId);
+        List<Long> requestIds = requests.stream().map(ItemRequestDto::getId).toList();
+        List<ItemShortDto> itemShorts = itemRepository.findItemsByRequestIds(requestIds);
 
         Map<Long, List<ItemResponse>> mapRequestItemResponses = itemShorts.stream()
                 .collect(Collectors.groupingBy(
@@ -53,7 +64,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 ));
 
         return requests.stream()
-                .map(mapper::toItemRequestDto)
                 .map(dto -> mapper.toItemRequestWithResponses(
                         dto,
                         mapRequestItemResponses.getOrDefault(dto.getId(), new ArrayList<>())))
@@ -61,14 +71,23 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     }
 
+    /*
+     * Страницы из начала ленты строятся по общему окну ItemRequestFeed без обращения к БД,
+     * транзакция открывается только для чтения страниц за пределами окна
+     */
     @Override
-    public List<ItemRequestDto> getOtherUsersRequests(long userId) {
-        log.debug("Запрос на получение ItemRequest других пользователей от user id = {}", userId);
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByAuthor_IdNotOrderByCreatedDesc(userId);
-        return mapper.toItemRequestDto(itemRequests);
+    public List<ItemRequestDto> getOtherUsersRequests(long userId, ItemRequestCursor after, int size) {
+        log.debug("Запрос на получение ItemRequest других пользователей от user id = {}, после {}, size = {}",
+                userId, after, size);
+        if (size <= 0) {
+            throw new ValidationException("Некорректный размер страницы: size = " + size);
+        }
+        return itemRequestFeed.page(userId, after, size)
+                .orElseGet(() -> itemRequestRepository.findOtherUsersRequests(userId, after.created(), after.id(), size));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequestWithResponses getRequest(long requestId) {
         log.debug("Запрос на получение ItemRequest request id = {}", requestId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
@@ -79,9 +98,4 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<ItemResponse> itemResponses = mapper.toItemResponse(itemShorts);
         return mapper.toItemRequestWithResponses(itemRequestDto, itemResponses);
     }
-
-    private User getUserOrElseThrow(long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не существует"));
-    }
 }
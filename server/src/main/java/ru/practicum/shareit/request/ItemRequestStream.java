@@ -0,0 +1,160 @@
+package ru.practicum.shareit.request;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.event.ItemRequestAnsweredEvent;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Поток событий о новых запросах вещей и ответах на них в формате Server-Sent Events.
+ * Подписчики - экземпляры gateway: каждый держит одно соединение и сам раздаёт события своим клиентам,
+ * поэтому события передаются всем подписчикам без фильтрации по пользователю.
+ * События этого экземпляра отправляются после коммита, события других экземпляров сервера - после доставки
+ * из outbox, с задержкой до периода опроса outbox. Событие может прийти повторно, подписчики должны допускать дубликаты.
+ * <p>
+ * Отправка блокирующая, поэтому события не отправляются в потоке, который их опубликовал: у каждого подписчика
+ * своя очередь, которая отправляется по порядку в отдельной задаче executor. Медленный подписчик не задерживает
+ * создание запросов, доставку outbox и других подписчиков; подписчик, накопивший MAX_PENDING событий, отключается
+ */
+@Component
+@Slf4j
+public class ItemRequestStream {
+    static final String REQUEST_EVENT = "request";
+    static final String RESPONSE_EVENT = "response";
+    static final int MAX_PENDING = 1000;
+
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final Executor executor;
+
+    public ItemRequestStream() {
+        this(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    ItemRequestStream(Executor executor) {
+        this.executor = executor;
+    }
+
+    // соединение не ограничено по времени, gateway переподключается при разрыве
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        register(emitter);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter) {
+        subscribers.put(emitter, new Subscriber(emitter));
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        log.info("Подписка на поток запросов вещей, подписчиков: {}", subscribers.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        broadcast(() -> SseEmitter.event()
+                .name(REQUEST_EVENT)
+                .data(event.request(), MediaType.APPLICATION_JSON));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemRequestAnswered(ItemRequestAnsweredEvent event) {
+        broadcast(() -> SseEmitter.event()
+                .name(RESPONSE_EVENT)
+                .data(event.answer(), MediaType.APPLICATION_JSON));
+    }
+
+    // комментарий без события не даёт промежуточным узлам закрыть простаивающее соединение
+    @Scheduled(fixedDelay = 15, timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        broadcast(() -> SseEmitter.event().comment("heartbeat"));
+    }
+
+    // построитель события одноразовый, для каждого подписчика создаётся свой
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        subscribers.values().forEach(subscriber -> subscriber.enqueue(event));
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * очередь событий одного подписчика, не больше одной задачи отправки одновременно
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Supplier<SseEmitter.SseEventBuilder>> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void enqueue(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (size.incrementAndGet() > MAX_PENDING) {
+                log.warn("Подписчик потока запросов вещей не успевает получать события и отключён");
+                disconnect(new IllegalStateException("Превышено число неотправленных событий"));
+                return;
+            }
+            pending.add(event);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!pending.isEmpty() && sending.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Supplier<SseEmitter.SseEventBuilder> event;
+                while ((event = pending.poll()) != null) {
+                    size.decrementAndGet();
+                    emitter.send(event.get());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // подписчик отключился
+                disconnect(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            // событие могло быть добавлено после опустошения очереди, но до сброса sending
+            schedule();
+        }
+
+        private void disconnect(Exception e) {
+            if (subscribers.remove(emitter, this)) {
+                pending.clear();
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
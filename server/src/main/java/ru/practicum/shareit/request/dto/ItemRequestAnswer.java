@@ -0,0 +1,7 @@
+package ru.practicum.shareit.request.dto;
+
+/**
+ * item, созданный в ответ на запрос вещи; автор запроса нужен, чтобы доставить ответ только ему
+ */
+public record ItemRequestAnswer(long requestId, long requestAuthorId, ItemResponse item) {
+}
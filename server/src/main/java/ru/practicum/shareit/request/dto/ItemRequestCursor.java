@@ -0,0 +1,23 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Курсор страницы запросов вещей: список упорядочен по убыванию (created, id),
+ * страница начинается с первого запроса, идущего строго после курсора
+ */
+public record ItemRequestCursor(LocalDateTime created, long id) {
+    // курсор первой страницы, находится позже любого запроса
+    public static final ItemRequestCursor FIRST_PAGE =
+            new ItemRequestCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    /**
+     * курсор по параметрам запроса: без created - первая страница, без id - все запросы, созданные не позже created
+     */
+    public static ItemRequestCursor of(LocalDateTime created, Long id) {
+        if (created == null) {
+            return FIRST_PAGE;
+        }
+        return new ItemRequestCursor(created, id == null ? Long.MAX_VALUE : id);
+    }
+}
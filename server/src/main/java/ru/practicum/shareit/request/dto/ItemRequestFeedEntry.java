@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * запрос вещи в ленте запросов; автор нужен, чтобы исключить из ленты собственные запросы пользователя
+ */
+public record ItemRequestFeedEntry(long id, String description, LocalDateTime created, long authorId) {
+    public ItemRequestDto toDto() {
+        return new ItemRequestDto(id, description, created);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.request.event;
+
+import ru.practicum.shareit.outbox.DomainEvent;
+import ru.practicum.shareit.request.dto.ItemRequestAnswer;
+
+/**
+ * создан item в ответ на запрос вещи
+ */
+public record ItemRequestAnsweredEvent(ItemRequestAnswer answer) implements DomainEvent {
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.request.event;
+
+import ru.practicum.shareit.outbox.DomainEvent;
+import ru.practicum.shareit.request.dto.ItemRequestFeedEntry;
+
+/**
+ * создан запрос вещи
+ */
+public record ItemRequestCreatedEvent(ItemRequestFeedEntry request) implements DomainEvent {
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Идентификаторы пользователей, существование которых уже проверено в БД.
+ * Отсутствующие пользователи не кешируются, число идентификаторов в памяти ограничено,
+ * идентификатор удаляется из кеша после коммита удаления пользователя и по истечении ttl.
+ * Если удаление пользователя завершилось во время проверки, её результат не сохраняется
+ */
+@Component
+public class UserExistenceCache {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> existing;
+    // число обработанных удалений пользователей
+    private final AtomicLong deletions = new AtomicLong();
+
+    public UserExistenceCache(UserRepository userRepository,
+                              @Value("${shareit.user-existence.cache-size:100000}") long cacheSize,
+                              @Value("${shareit.user-existence.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.existing = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * проверить существование пользователя, запрос в БД только для идентификаторов, которых нет в кеше
+     */
+    public void requireExists(long userId) {
+        if (existing.getIfPresent(userId) != null) {
+            return;
+        }
+        long deletionsBefore = deletions.get();
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не существует");
+        }
+        existing.put(userId, Boolean.TRUE);
+        // удаление, завершившееся после existsById, могло очистить кеш до put
+        if (deletions.get() != deletionsBefore) {
+            existing.invalidate(userId);
+        }
+    }
+
+    /**
+     * ссылка на существующего пользователя без загрузки его данных, подходит для связей сохраняемых сущностей
+     */
+    public User getReference(long userId) {
+        requireExists(userId);
+        return userRepository.getReferenceById(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        deletions.incrementAndGet();
+        existing.invalidate(event.userId());
+    }
+}
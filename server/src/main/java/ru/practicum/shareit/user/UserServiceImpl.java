@@ -2,10 +2,14 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserSavedEvent;
 import ru.practicum.shareit.user.model.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
@@ -15,18 +19,21 @@ import ru.practicum.shareit.user.model.User;
 public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public UserDto createNewUser(UserDto dto) {
         log.debug("Запрос на создание нового пользователя: email = {}", dto.getEmail());
         User user = userMapper.toUser(dto);
-        user = userRepository.save(user);
+        user = userRepository.saveAndFlush(user);
         log.info("Создан новый пользователь id = {}, name = {}, email = {}", user.getId(), user.getName(), user.getEmail());
         return userMapper.toDto(user);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUser(long userId) {
         User user = getUserOrElseThrow(userId);
         return userMapper.toDto(user);
@@ -39,6 +46,7 @@ public class UserServiceImpl implements UserService {
         User user = getUserOrElseThrow(userId);
         userMapper.updateUser(user, dto);
         user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserSavedEvent(userId));
         log.info("Обновлены данные пользователя id = {}, name = {}, email = {}", userId, user.getName(), user.getId());
         return userMapper.toDto(user);
     }
@@ -47,7 +55,10 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUser(long userId) {
         log.debug("Запрос на удаление пользователя id = {}", userId);
+        // кэш item очищается после коммита по UserDeletedEvent
+        itemRepository.recountCommentsWithoutAuthor(userId);
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
         log.info("Удален пользователь id = {}", userId);
     }
 
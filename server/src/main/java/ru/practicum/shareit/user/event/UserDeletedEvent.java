@@ -0,0 +1,9 @@
+package ru.practicum.shareit.user.event;
+
+import ru.practicum.shareit.outbox.DomainEvent;
+
+/**
+ * пользователь удалён, вместе с ним каскадно удалены его item
+ */
+public record UserDeletedEvent(long userId) implements DomainEvent {
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.user.event;
+
+import ru.practicum.shareit.outbox.DomainEvent;
+
+/**
+ * изменены имя или email пользователя
+ */
+public record UserSavedEvent(long userId) implements DomainEvent {
+}
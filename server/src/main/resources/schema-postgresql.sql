@@ -0,0 +1,46 @@
+-- объекты, специфичные для PostgreSQL; выполняется после schema.sql
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- переход существующей БД с IDENTITY на последовательности: пока столбец id ещё IDENTITY,
+-- последовательность начинается после максимального id, затем IDENTITY снимается
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users)) FROM information_schema.columns
+    WHERE table_schema = current_schema() AND table_name = 'users' AND column_name = 'id' AND is_identity = 'YES';
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('requests_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM requests)) FROM information_schema.columns
+    WHERE table_schema = current_schema() AND table_name = 'requests' AND column_name = 'id' AND is_identity = 'YES';
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM items)) FROM information_schema.columns
+    WHERE table_schema = current_schema() AND table_name = 'items' AND column_name = 'id' AND is_identity = 'YES';
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('bookings_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM bookings)) FROM information_schema.columns
+    WHERE table_schema = current_schema() AND table_name = 'bookings' AND column_name = 'id' AND is_identity = 'YES';
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('comments_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM comments)) FROM information_schema.columns
+    WHERE table_schema = current_schema() AND table_name = 'comments' AND column_name = 'id' AND is_identity = 'YES';
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- счётчик комментариев в существующей БД: столбцы добавляются без значений, заполняются по comments один раз
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_comment_at TIMESTAMP;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count INT;
+UPDATE items SET comment_count = (SELECT COUNT(*) FROM comments AS c WHERE c.item_id = items.id),
+                 last_comment_at = (SELECT MAX(c.created) FROM comments AS c WHERE c.item_id = items.id)
+    WHERE comment_count IS NULL;
+ALTER TABLE items ALTER COLUMN comment_count SET DEFAULT 0, ALTER COLUMN comment_count SET NOT NULL;
+
+-- время события outbox - время вставки строки перед коммитом, а не начала транзакции, см. OutboxDispatcher
+ALTER TABLE outbox ALTER COLUMN created SET DEFAULT clock_timestamp();
+
+-- поиск item по подстроке: lower(name) LIKE '%text%' OR lower(description) LIKE '%text%'
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING gin (lower(description) gin_trgm_ops);
+
+-- фильтры CURRENT/PAST/FUTURE бронирующего и владельца, ближайшие бронирования item и проверка отзыва учитывают только подтверждённые бронирования
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_approved ON bookings (user_id, start_time DESC, id DESC)
+    WHERE status = 'APPROVED';
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_approved ON bookings (owner_id, start_time DESC, id DESC)
+    WHERE status = 'APPROVED';
+CREATE INDEX IF NOT EXISTS ix_bookings_item_approved ON bookings (item_id, start_time DESC, id DESC) INCLUDE (end_time)
+    WHERE status = 'APPROVED';
+CREATE INDEX IF NOT EXISTS ix_bookings_item_booker_approved ON bookings (item_id, user_id, end_time)
+    WHERE status = 'APPROVED';
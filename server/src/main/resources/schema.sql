@@ -1,14 +1,22 @@
 CREATE SCHEMA IF NOT EXISTS public;
 
+-- идентификаторы выдаёт Hibernate блоками по 50 (оптимизатор pooled), вставки объединяются в пакеты
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(255) NOT NULL,
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     author_id BIGINT NOT NULL,
     description VARCHAR(255) NOT NULL,
     created TIMESTAMP NOT NULL,
@@ -16,20 +24,23 @@ CREATE TABLE IF NOT EXISTS requests (
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     name VARCHAR(30) NOT NULL,
     description VARCHAR(255),
     available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    comment_count INT NOT NULL DEFAULT 0,
+    last_comment_at TIMESTAMP,
     FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE SET NULL
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     item_id BIGINT NOT NULL,
     user_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
     start_time TIMESTAMP NOT NULL,
     end_time TIMESTAMP NOT NULL,
     status VARCHAR(10) NOT NULL,
@@ -38,11 +49,45 @@ CREATE TABLE IF NOT EXISTS bookings (
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     item_id BIGINT NOT NULL,
     author_id BIGINT NOT NULL,
     text VARCHAR(255) NOT NULL,
     created TIMESTAMP NOT NULL,
     FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
     FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- события изменения данных, записываются в транзакции изменения; created - время начала транзакции по часам БД
+CREATE TABLE IF NOT EXISTS outbox (
+    id BIGINT PRIMARY KEY,
+    type VARCHAR(255) NOT NULL,
+    payload VARCHAR NOT NULL,
+    origin VARCHAR(36) NOT NULL,
+    created TIMESTAMP NOT NULL DEFAULT LOCALTIMESTAMP
+);
+
+-- владелец item в bookings: в существующей БД столбец добавляется без значений и заполняется по items один раз
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items AS i WHERE i.id = bookings.item_id) WHERE owner_id IS NULL;
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+-- страницы списков бронирований по курсору (start_time, id)
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (user_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_start ON bookings (owner_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id);
+
+-- фильтры WAITING/REJECTED и запросы по статусу: пользователь, владелец или item + статус, по убыванию (start_time, id)
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON bookings (user_id, status, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_status_start ON bookings (owner_id, status, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_time DESC, id DESC);
+
+-- лента запросов вещей по курсору (created, id)
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created DESC, id DESC);
+
+-- комментарии item по курсору (created, id) и последние комментарии item
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created DESC, id DESC);
+
+-- чтение outbox по курсору (created, id) и удаление старых событий
+CREATE INDEX IF NOT EXISTS ix_outbox_created ON outbox (created, id);
@@ -0,0 +1,49 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Идентификаторы из последовательностей не требуют обращения к БД при каждой вставке,
+ * поэтому вставки нескольких сущностей отправляются одним пакетом
+ */
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BatchInsertTest {
+    private static final int COUNT = 20;
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final TestEntityManager entityManager;
+
+    @Test
+    void saveAll_thenOneInsertPerTable() {
+        SqlStatementRecorder.clear();
+
+        List<User> users = userRepository.saveAll(IntStream.range(0, COUNT)
+                .mapToObj(i -> TestEntities.user().name("user " + i).build())
+                .toList());
+        itemRepository.saveAll(users.stream()
+                .map(user -> TestEntities.item(user).build())
+                .toList());
+        entityManager.flush();
+
+        List<String> inserts = SqlStatementRecorder.statements().stream()
+                .filter(sql -> sql.startsWith("insert"))
+                .toList();
+        assertEquals(2, inserts.size(), inserts::toString);
+        assertEquals(COUNT, users.stream().map(User::getId).distinct().count());
+        assertTrue(SqlStatementRecorder.statements().size() < COUNT, () -> SqlStatementRecorder.statements().toString());
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Кэш второго уровня Hibernate: сущности загружаются из кэша в новых сессиях
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:entity-cache",
+        SqlStatementRecorder.PROPERTY})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class EntityCacheTest {
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final MeterRegistry meterRegistry;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(TestEntities.user().build());
+        item = itemRepository.save(TestEntities.item(owner).build());
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void findById_whenLoadedBefore_thenNoSql() {
+        itemRepository.findById(item.getId());
+        SqlStatementRecorder.clear();
+
+        Item cached = itemRepository.findById(item.getId()).orElseThrow();
+
+        assertEquals("item", cached.getName());
+        assertTrue(SqlStatementRecorder.statements().isEmpty(), () -> SqlStatementRecorder.statements().toString());
+        assertTrue(itemCacheHits() > 0);
+    }
+
+    @Test
+    void updateItem_thenCachedItemUpdated() {
+        itemRepository.findById(item.getId());
+
+        itemService.updateItem(ItemDto.builder().name("updated").build(), item.getId(), owner.getId());
+
+        assertEquals("updated", itemRepository.findById(item.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void deleteUser_thenOwnedItemsEvicted() {
+        itemRepository.findById(item.getId());
+
+        userService.deleteUser(owner.getId());
+
+        assertTrue(itemRepository.findById(item.getId()).isEmpty());
+    }
+
+    private double itemCacheHits() {
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", "items")
+                .tag("result", "hit")
+                .functionCounter();
+        assertNotNull(hits, "метрика кэша второго уровня не зарегистрирована");
+        return hits.count();
+    }
+}
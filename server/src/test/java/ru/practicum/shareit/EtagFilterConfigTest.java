@@ -0,0 +1,77 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserController;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest({UserController.class, ItemController.class})
+@Import(EtagFilterConfig.class)
+class EtagFilterConfigTest {
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private ItemService itemService;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @SneakyThrows
+    @Test
+    void get_whenIfNoneMatchEqualsEtag_thenNotModified() {
+        when(userService.getUser(1L)).thenReturn(new UserDto(1L, "user_name", "user@email"));
+
+        String etag = mvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mvc.perform(get("/users/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @SneakyThrows
+    @Test
+    void get_whenContentChanged_thenFullResponse() {
+        when(userService.getUser(1L)).thenReturn(
+                new UserDto(1L, "user_name", "user@email"),
+                new UserDto(1L, "new_name", "user@email"));
+
+        String etag = mvc.perform(get("/users/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("new_name"));
+    }
+
+    @SneakyThrows
+    @Test
+    void get_whenList_thenNoEtag() {
+        when(itemService.searchByText("item", 0, 10)).thenReturn(List.of());
+
+        mvc.perform(get("/items/search").param("text", "item"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+}
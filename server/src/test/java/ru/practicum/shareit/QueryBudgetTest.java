@@ -0,0 +1,156 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL-запросов на один вызов endpoint не должно превышать его бюджет.
+ * У каждого item несколько комментариев и бронирований разных пользователей, поэтому
+ * загрузка связей по одной (N+1) выходит за бюджет. Кэш второго уровня очищается перед каждым вызовом
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget",
+        SqlStatementRecorder.PROPERTY})
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryBudgetTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final int BOOKERS = 3;
+
+    private final MockMvc mvc;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+    private ItemRequest request;
+    private Item item;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(TestEntities.user().build());
+        List<User> bookers = IntStream.range(0, BOOKERS)
+                .mapToObj(i -> userRepository.save(TestEntities.user().build()))
+                .toList();
+        booker = bookers.getFirst();
+        request = itemRequestRepository.save(ItemRequest.builder()
+                .description("query budget request")
+                .author(booker)
+                .build());
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            items.add(itemRepository.save(TestEntities.item(owner)
+                    .name("budget item" + i)
+                    .itemRequest(i == 0 ? null : request)
+                    .build()));
+        }
+        item = items.getFirst();
+
+        LocalDateTime start = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.MILLIS);
+        for (Item bookedItem : items) {
+            for (User user : bookers) {
+                Booking saved = bookingRepository.save(Booking.builder()
+                        .item(bookedItem)
+                        .booker(user)
+                        .start(start)
+                        .end(start.plusHours(1))
+                        .status(Booking.Status.APPROVED)
+                        .build());
+                if (booking == null) {
+                    booking = saved;
+                }
+                Comment comment = commentRepository.save(Comment.builder()
+                        .item(bookedItem)
+                        .author(user)
+                        .text("query budget comment")
+                        .build());
+                bookedItem.addComment(comment);
+                start = start.plusHours(1);
+            }
+            itemRepository.save(bookedItem);
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> endpoints() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        return Stream.of(
+                budget("GET /users/{userId}", 1,
+                        get("/users/{userId}", booker.getId())),
+                budget("GET /items/{itemId}", 2,
+                        get("/items/{itemId}", item.getId())),
+                budget("GET /items", 4,
+                        get("/items").header(USER_ID_HEADER, owner.getId())),
+                budget("GET /items/{itemId}/comments", 2,
+                        get("/items/{itemId}/comments", item.getId())),
+                budget("GET /items/search", 1,
+                        get("/items/search").param("text", "budget")),
+                // бронирование, item и booker
+                budget("GET /bookings/{bookingId}", 3,
+                        get("/bookings/{bookingId}", booking.getId()).header(USER_ID_HEADER, owner.getId())),
+                budget("GET /bookings", 2,
+                        get("/bookings").header(USER_ID_HEADER, booker.getId())),
+                budget("GET /bookings/owner", 2,
+                        get("/bookings/owner").header(USER_ID_HEADER, owner.getId())),
+                budget("GET /bookings/availability", 2,
+                        get("/bookings/availability")
+                                .param("itemId", item.getId().toString())
+                                .param("start", now.toString())
+                                .param("end", now.plusHours(1).toString())),
+                budget("GET /requests", 3,
+                        get("/requests").header(USER_ID_HEADER, booker.getId())),
+                budget("GET /requests/all", 1,
+                        get("/requests/all").header(USER_ID_HEADER, owner.getId())),
+                budget("GET /requests/{requestId}", 2,
+                        get("/requests/{requestId}", request.getId())));
+    }
+
+    private DynamicTest budget(String endpoint, int maxStatements, RequestBuilder request) {
+        return DynamicTest.dynamicTest(endpoint, () -> {
+            entityManagerFactory.getCache().evictAll();
+            SqlStatementRecorder.clear();
+
+            mvc.perform(request).andExpect(status().is2xxSuccessful());
+
+            List<String> statements = SqlStatementRecorder.statements();
+            assertTrue(statements.size() <= maxStatements, () -> endpoint + ": " + statements.size()
+                    + " SQL-запросов при бюджете " + maxStatements + System.lineSeparator()
+                    + String.join(System.lineSeparator(), statements));
+        });
+    }
+}
@@ -158,5 +158,7 @@ public class TestData {
         booking4 = bookingRepository.save(booking4);
         booking5 = bookingRepository.save(booking5);
         comment1 = commentRepository.save(comment1);
+        item1.addComment(comment1);
+        item1 = itemRepository.save(item1);
     }
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.UUID;
+
+/**
+ * Заготовки сущностей для тестов, которые фиксируют транзакции в отдельной встроенной БД.
+ * Email пользователя уникален, поэтому данные разных тестов одного контекста не конфликтуют
+ */
+public final class TestEntities {
+
+    private TestEntities() {
+    }
+
+    public static User.UserBuilder user() {
+        return User.builder()
+                .name("user")
+                .email(UUID.randomUUID() + "@practicum");
+    }
+
+    public static Item.ItemBuilder item(User owner) {
+        return Item.builder()
+                .name("item")
+                .description("test item")
+                .available(Boolean.TRUE)
+                .owner(owner);
+    }
+}
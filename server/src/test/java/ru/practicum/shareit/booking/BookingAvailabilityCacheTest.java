@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingSavedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookingAvailabilityCacheTest {
+    private static final long ITEM_ID = 1L;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingAvailabilityCache cache = new BookingAvailabilityCache(bookingRepository, 100);
+
+    @Test
+    void nextFreeStart_loadsTreeOnce() {
+        when(bookingRepository.findIntervalsByItem_IdAndStatusIn(eq(ITEM_ID), anyCollection()))
+                .thenReturn(List.of(new BookingInterval(1L, START, START.plusHours(2))));
+
+        assertEquals(START.plusHours(2), cache.nextFreeStart(ITEM_ID, START, HOUR));
+        assertEquals(START.plusHours(2), cache.nextFreeStart(ITEM_ID, START.plusHours(1), HOUR));
+
+        verify(bookingRepository, times(1)).findIntervalsByItem_IdAndStatusIn(eq(ITEM_ID), anyCollection());
+    }
+
+    @Test
+    void onBookingSaved_whenTreeLoaded_thenUpdated() {
+        when(bookingRepository.findIntervalsByItem_IdAndStatusIn(eq(ITEM_ID), anyCollection())).thenReturn(List.of());
+        cache.nextFreeStart(ITEM_ID, START, HOUR);
+
+        cache.onBookingSaved(new BookingSavedEvent(5L, ITEM_ID, START, START.plusHours(1), Booking.Status.WAITING));
+        assertEquals(START.plusHours(1), cache.nextFreeStart(ITEM_ID, START, HOUR));
+
+        cache.onBookingSaved(new BookingSavedEvent(5L, ITEM_ID, START, START.plusHours(1), Booking.Status.REJECTED));
+        assertEquals(START, cache.nextFreeStart(ITEM_ID, START, HOUR));
+    }
+
+    @Test
+    void onBookingSaved_whenTreeNotLoaded_thenLoadedFromRepositoryLater() {
+        cache.onBookingSaved(new BookingSavedEvent(5L, ITEM_ID, START, START.plusHours(1), Booking.Status.WAITING));
+        verifyNoInteractions(bookingRepository);
+
+        when(bookingRepository.findIntervalsByItem_IdAndStatusIn(eq(ITEM_ID), anyCollection()))
+                .thenReturn(List.of(new BookingInterval(5L, START, START.plusHours(1))));
+        assertEquals(START.plusHours(1), cache.nextFreeStart(ITEM_ID, START, HOUR));
+    }
+
+    @Test
+    void onItemDeleted_thenTreeEvicted() {
+        when(bookingRepository.findIntervalsByItem_IdAndStatusIn(eq(ITEM_ID), anyCollection())).thenReturn(List.of());
+        cache.nextFreeStart(ITEM_ID, START, HOUR);
+
+        cache.onItemDeleted(new ItemDeletedEvent(ITEM_ID));
+        cache.nextFreeStart(ITEM_ID, START, HOUR);
+
+        verify(bookingRepository, times(2)).findIntervalsByItem_IdAndStatusIn(eq(ITEM_ID), anyCollection());
+    }
+}
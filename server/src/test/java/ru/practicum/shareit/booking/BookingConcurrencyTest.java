@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.TestEntities;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Параллельное создание и подтверждение бронирований на нескольких "горячих" item
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-concurrency;LOCK_TIMEOUT=10000")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Slf4j
+class BookingConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int HOT_ITEMS = 2;
+    private static final String APPROVED_OVERLAPS_SQL = """
+            SELECT COUNT(*) FROM bookings AS a
+            JOIN bookings AS b ON a.item_id = b.item_id AND a.id < b.id
+            WHERE a.item_id = ? AND a.status = 'APPROVED' AND b.status = 'APPROVED'
+            AND a.start_time < b.end_time AND b.start_time < a.end_time""";
+
+    private final BookingService bookingService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private User owner;
+    private List<User> bookers;
+    private List<Item> hotItems;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(TestEntities.user().build());
+        bookers = IntStream.range(0, THREADS).mapToObj(i -> userRepository.save(TestEntities.user().build())).toList();
+        hotItems = IntStream.range(0, HOT_ITEMS)
+                .mapToObj(i -> itemRepository.save(TestEntities.item(owner).name("hot item " + i).build()))
+                .toList();
+    }
+
+    @Test
+    void approveOverlappingInParallel_thenOnlyOneApproved() throws Exception {
+        Item item = hotItems.getFirst();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.MILLIS);
+        List<Callable<Boolean>> approvals = new ArrayList<>();
+        for (User booker : bookers) {
+            long bookingId = bookingService.createNewBooking(
+                    new BookingCreateDto(item.getId(), start, start.plusHours(1)), booker.getId()).getId();
+            approvals.add(() -> tryApprove(bookingId));
+        }
+
+        long approved = runInParallel(approvals).stream().filter(Boolean::booleanValue).count();
+
+        assertEquals(1, approved);
+        assertNoApprovedOverlaps();
+    }
+
+    // замер пропускной способности, запускается профилем load: mvn -Pload test
+    @Test
+    @Tag("load")
+    void createAndApproveOnHotItems_throughput() throws Exception {
+        int bookingsPerThread = 25;
+        int slots = 10;
+        LocalDateTime base = LocalDateTime.now().plusDays(20).truncatedTo(ChronoUnit.HOURS);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Callable<Boolean>> tasks = bookers.stream()
+                .<Callable<Boolean>>map(booker -> () -> {
+                    for (int i = 0; i < bookingsPerThread; i++) {
+                        Item item = hotItems.get(i % HOT_ITEMS);
+                        LocalDateTime start = base.plusHours(ThreadLocalRandom.current().nextInt(slots));
+                        try {
+                            long bookingId = bookingService.createNewBooking(
+                                    new BookingCreateDto(item.getId(), start, start.plusHours(1)), booker.getId()).getId();
+                            bookingService.approveBooking(bookingId, owner.getId(), true);
+                            approved.incrementAndGet();
+                        } catch (BookingConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return true;
+                })
+                .toList();
+
+        long startNanos = System.nanoTime();
+        runInParallel(tasks);
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        int total = THREADS * bookingsPerThread;
+        log.info("Параллельное бронирование: {} потоков, {} item, {} попыток за {} с ({} попыток/с), "
+                        + "подтверждено {}, конфликтов {}",
+                THREADS, HOT_ITEMS, total, String.format("%.3f", seconds), String.format("%.0f", total / seconds),
+                approved.get(), conflicts.get());
+
+        assertEquals(total, approved.get() + conflicts.get());
+        assertTrue(approved.get() <= HOT_ITEMS * slots);
+        assertNoApprovedOverlaps();
+    }
+
+    private boolean tryApprove(long bookingId) {
+        try {
+            bookingService.approveBooking(bookingId, owner.getId(), true);
+            return true;
+        } catch (BookingConflictException e) {
+            return false;
+        }
+    }
+
+    private void assertNoApprovedOverlaps() {
+        for (Item item : hotItems) {
+            assertEquals(0L, jdbcTemplate.queryForObject(APPROVED_OVERLAPS_SQL, Long.class, item.getId()));
+        }
+    }
+
+    private static <T> List<T> runInParallel(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -11,8 +11,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.AvailabilityDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStateFilter;
 import ru.practicum.shareit.errorhandle.ErrorResponse;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.BookingCreateException;
@@ -25,8 +28,10 @@ import ru.practicum.shareit.user.model.UserMapperImpl;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -174,4 +179,70 @@ class BookingControllerTest {
 
         verify(service, times(1)).approveBooking(bookingId, userId, true);
     }
-}
\ No newline at end of file
+
+    @SneakyThrows
+    @Test
+    void getBookerBookings_withCursor() {
+        Long userId = user2.getId();
+        LocalDateTime afterStart = LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_000_000);
+        BookingCursor cursor = new BookingCursor(afterStart, 7L);
+        when(service.getBookerBookings(userId, BookingStateFilter.PAST, cursor, 5))
+                .thenReturn(List.of(booking1Dto));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("state", "PAST")
+                        .param("afterStart", afterStart.toString())
+                        .param("afterId", "7")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(booking1Dto))));
+
+        verify(service, times(1)).getBookerBookings(userId, BookingStateFilter.PAST, cursor, 5);
+    }
+
+    @SneakyThrows
+    @Test
+    void getOwnerBookings_whenAfterIdWithoutAfterStart_thenBadRequest() {
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", user1.getId())
+                        .param("afterId", "7"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+    @SneakyThrows
+    @Test
+    void getOwnerBookings_withoutCursor_thenFirstPage() {
+        Long userId = user1.getId();
+        when(service.getOwnerBookings(userId, BookingStateFilter.ALL, BookingCursor.FIRST_PAGE, 10))
+                .thenReturn(List.of(booking1Dto));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(booking1Dto))));
+
+        verify(service, times(1)).getOwnerBookings(userId, BookingStateFilter.ALL, BookingCursor.FIRST_PAGE, 10);
+    }
+
+    @SneakyThrows
+    @Test
+    void getAvailability() {
+        Long itemId = item1.getId();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusHours(1);
+        AvailabilityDto expected = new AvailabilityDto(itemId, start, end, false, end);
+        when(service.getAvailability(itemId, start, end)).thenReturn(expected);
+
+        mvc.perform(get("/bookings/availability")
+                        .param("itemId", String.valueOf(itemId))
+                        .param("start", start.toString())
+                        .param("end", end.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(expected)));
+
+        verify(service, times(1)).getAvailability(itemId, start, end);
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingIntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private final BookingIntervalTree tree = new BookingIntervalTree();
+
+    @Test
+    void nextFreeStart_whenEmpty_thenFrom() {
+        assertEquals(hour(5), tree.nextFreeStart(hour(5), HOUR));
+    }
+
+    @Test
+    void removeEndedBefore_thenOnlyEndedRemoved() {
+        tree.put(new BookingInterval(1, hour(0), hour(2)));
+        tree.put(new BookingInterval(2, hour(1), hour(8)));
+        tree.put(new BookingInterval(3, hour(3), hour(4)));
+
+        tree.removeEndedBefore(hour(4));
+
+        assertEquals(1, tree.size());
+        // закончившееся бронирование 1 больше не занимает начало периода
+        assertEquals(hour(0), tree.nextFreeStart(hour(0), HOUR));
+    }
+
+    @Test
+    void nextFreeStart_whenPeriodFree_thenFrom() {
+        tree.put(new BookingInterval(1, hour(0), hour(2)));
+        tree.put(new BookingInterval(2, hour(4), hour(6)));
+
+        assertEquals(hour(2), tree.nextFreeStart(hour(2), Duration.ofHours(2)));
+    }
+
+    @Test
+    void nextFreeStart_skipsGapsShorterThanDuration() {
+        tree.put(new BookingInterval(1, hour(0), hour(2)));
+        tree.put(new BookingInterval(2, hour(3), hour(5)));
+        tree.put(new BookingInterval(3, hour(6), hour(7)));
+
+        assertEquals(hour(2), tree.nextFreeStart(hour(1), HOUR));
+        assertEquals(hour(7), tree.nextFreeStart(hour(1), Duration.ofHours(2)));
+    }
+
+    @Test
+    void nextFreeStart_whenLongIntervalCoversLaterOnes() {
+        tree.put(new BookingInterval(1, hour(0), hour(10)));
+        tree.put(new BookingInterval(2, hour(2), hour(3)));
+
+        assertEquals(hour(10), tree.nextFreeStart(hour(1), HOUR));
+    }
+
+    @Test
+    void put_whenSameBooking_thenPeriodReplaced() {
+        tree.put(new BookingInterval(1, hour(0), hour(2)));
+        tree.put(new BookingInterval(1, hour(5), hour(6)));
+
+        assertEquals(1, tree.size());
+        assertEquals(hour(0), tree.nextFreeStart(hour(0), Duration.ofHours(5)));
+    }
+
+    @Test
+    void remove() {
+        tree.put(new BookingInterval(1, hour(0), hour(2)));
+        tree.put(new BookingInterval(2, hour(0), hour(2)));
+        tree.remove(1);
+
+        assertEquals(hour(2), tree.nextFreeStart(hour(0), HOUR));
+        tree.remove(2);
+        assertEquals(hour(0), tree.nextFreeStart(hour(0), HOUR));
+    }
+
+    @Test
+    void nextFreeStart_matchesLinearScan() {
+        Random random = new Random(42);
+        List<BookingInterval> intervals = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            LocalDateTime start = hour(random.nextInt(500));
+            BookingInterval interval = new BookingInterval(id, start, start.plusHours(1 + random.nextInt(5)));
+            intervals.add(interval);
+            tree.put(interval);
+        }
+        for (int i = 0; i < 100; i++) {
+            BookingInterval removed = intervals.remove(random.nextInt(intervals.size()));
+            tree.remove(removed.id());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime from = hour(random.nextInt(520));
+            Duration duration = Duration.ofHours(1 + random.nextInt(3));
+            assertEquals(linearNextFreeStart(intervals, from, duration), tree.nextFreeStart(from, duration));
+        }
+    }
+
+    private static LocalDateTime linearNextFreeStart(List<BookingInterval> intervals, LocalDateTime from,
+                                                     Duration duration) {
+        LocalDateTime candidate = from;
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (BookingInterval interval : intervals) {
+                if (interval.start().isBefore(candidate.plus(duration)) && interval.end().isAfter(candidate)) {
+                    candidate = interval.end();
+                    moved = true;
+                }
+            }
+        }
+        return candidate;
+    }
+
+    private static LocalDateTime hour(int hours) {
+        return BASE.plusHours(hours);
+    }
+}
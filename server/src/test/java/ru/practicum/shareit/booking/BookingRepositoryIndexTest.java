@@ -0,0 +1,164 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.SqlStatementRecorder;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Каждый запрос BookingRepository выполняется, его SQL передаётся в EXPLAIN встроенной БД H2,
+ * план не должен содержать полного просмотра таблицы bookings.
+ * Таблицы заполняются тестовыми строками и по ним собирается статистика (ANALYZE), параметры EXPLAIN
+ * связываются теми же значениями, с которыми выполнялся запрос, поэтому план совпадает с планом выполнения.
+ * Проверяются только индексы schema.sql: частичные индексы schema-postgresql.sql в H2 не создаются,
+ * их использование этот тест не подтверждает.
+ * ANALYZE фиксирует транзакцию, поэтому используется отдельная встроенная БД
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-index",
+        SqlStatementRecorder.PROPERTY})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingRepositoryIndexTest {
+    private static final String BOOKINGS_TABLE_SCAN = "PUBLIC.BOOKINGS.tableScan";
+    private static final int USERS = 20;
+    private static final int ITEMS = 100;
+    private static final int BOOKINGS = 5000;
+    private static final Pattern QUERY_PARAMETER = Pattern.compile("\\?(\\d+)");
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private final BookingRepository bookingRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void fillTables() {
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)",
+                LongStream.rangeClosed(1, USERS)
+                        .mapToObj(id -> new Object[]{id, "user" + id, id + "@index.test"})
+                        .toList());
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id) values (?, ?, ?, ?, ?)",
+                LongStream.rangeClosed(1, ITEMS)
+                        .mapToObj(id -> new Object[]{id, "item" + id, "description", true, id % USERS + 1})
+                        .toList());
+        Booking.Status[] statuses = Booking.Status.values();
+        jdbcTemplate.batchUpdate("insert into bookings (id, item_id, owner_id, user_id, start_time, end_time, status) "
+                        + "values (?, ?, ?, ?, ?, ?, ?)",
+                LongStream.rangeClosed(1, BOOKINGS)
+                        .mapToObj(id -> {
+                            LocalDateTime start = NOW.minusHours(BOOKINGS / 2).plusHours(id);
+                            long itemId = id % ITEMS + 1;
+                            return new Object[]{id, itemId, itemId % USERS + 1, id * 7 % USERS + 1,
+                                    Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2)),
+                                    statuses[(int) (id % statuses.length)].name()};
+                        })
+                        .toList());
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> everyQueryUsesIndex() {
+        return Arrays.stream(BookingRepository.class.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                .sorted(Comparator.comparing(Method::getName))
+                .map(method -> DynamicTest.dynamicTest(method.getName(), () -> assertUsesIndex(method)));
+    }
+
+    private void assertUsesIndex(Method method) throws Exception {
+        SqlStatementRecorder.clear();
+        Object[] arguments = arguments(method);
+        method.invoke(bookingRepository, arguments);
+        List<String> statements = SqlStatementRecorder.statements();
+        assertFalse(statements.isEmpty(), "запрос не выполнен");
+
+        List<Object> parameters = sqlParameters(method, arguments);
+        for (String sql : statements) {
+            String plan = explain(sql, parameters);
+            assertFalse(plan.contains(BOOKINGS_TABLE_SCAN), () -> "полный просмотр bookings:\n" + plan);
+        }
+    }
+
+    private String explain(String sql, List<Object> parameters) {
+        return jdbcTemplate.execute("EXPLAIN " + sql, (PreparedStatement statement) -> {
+            assertEquals(parameters.size(), statement.getParameterMetaData().getParameterCount(),
+                    () -> "число параметров SQL не совпадает с @Query:\n" + sql);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    /**
+     * значения параметров SQL в порядке их появления в тексте @Query, коллекция раскрывается в свои элементы
+     */
+    private static List<Object> sqlParameters(Method method, Object[] arguments) {
+        List<Object> parameters = new ArrayList<>();
+        Matcher matcher = QUERY_PARAMETER.matcher(method.getAnnotation(Query.class).value());
+        while (matcher.find()) {
+            Object argument = arguments[Integer.parseInt(matcher.group(1)) - 1];
+            if (argument instanceof Collection<?> values) {
+                values.forEach(value -> parameters.add(sqlValue(value)));
+            } else {
+                parameters.add(sqlValue(argument));
+            }
+        }
+        return parameters;
+    }
+
+    private static Object sqlValue(Object argument) {
+        return argument instanceof Enum<?> constant ? constant.name() : argument;
+    }
+
+    private static Object[] arguments(Method method) {
+        return Arrays.stream(method.getGenericParameterTypes())
+                .map(BookingRepositoryIndexTest::argument)
+                .toArray();
+    }
+
+    private static Object argument(Type type) {
+        if (type instanceof ParameterizedType collection && collection.getRawType() == Collection.class) {
+            return List.of(argument(collection.getActualTypeArguments()[0]));
+        }
+        if (type == long.class || type == Long.class) {
+            // id 1 есть у пользователя, item и бронирования
+            return 1L;
+        } else if (type == int.class || type == Integer.class) {
+            return 10;
+        } else if (type == LocalDateTime.class) {
+            return NOW;
+        } else if (type == Booking.Status.class) {
+            return Booking.Status.APPROVED;
+        }
+        throw new IllegalArgumentException("Нет тестового значения для параметра типа " + type.getTypeName());
+    }
+}
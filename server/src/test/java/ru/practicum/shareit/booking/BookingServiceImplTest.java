@@ -9,11 +9,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.dto.AvailabilityDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateFilter;
 import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.BookingCreateException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.user.model.User;
@@ -70,7 +75,7 @@ class BookingServiceImplTest {
     void createNewBooking() {
         long bookerId = user2.getId();
         Long itemId = item1.getId();
-        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
         BookingCreateDto createDto = new BookingCreateDto(itemId, start, start.plusSeconds(1));
 
         Long rowsBefore = jdbcTemplate.queryForObject(ROWS_COUNT_SQL, Long.class);
@@ -83,6 +88,7 @@ class BookingServiceImplTest {
         assertEquals(itemId, savedRow.get("item_id"));
         assertEquals(userMapper.toDto(user2), actual.getBooker());
         assertEquals(bookerId, savedRow.get("user_id"));
+        assertEquals(user1.getId(), savedRow.get("owner_id"));
         assertEquals(start, actual.getStart());
         assertEquals(start, ((Timestamp) savedRow.get("start_time")).toLocalDateTime());
         assertEquals(createDto.getEnd(), actual.getEnd());
@@ -95,7 +101,7 @@ class BookingServiceImplTest {
     void createNewBooking_whenItemNotAvailable_thenThrowException() {
         long bookerId = user2.getId();
         Long itemId = item2.getId();
-        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
         BookingCreateDto createDto = new BookingCreateDto(itemId, start, start.plusSeconds(1));
 
         Long rowsBefore = jdbcTemplate.queryForObject(ROWS_COUNT_SQL, Long.class);
@@ -109,7 +115,7 @@ class BookingServiceImplTest {
     void createNewBooking_whenBookingTimeNotValid_thenThrowException() {
         long bookerId = user2.getId();
         Long itemId = item1.getId();
-        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
         BookingCreateDto createDto = new BookingCreateDto(itemId, start, start.minusSeconds(1));
 
         Long rowsBefore = jdbcTemplate.queryForObject(ROWS_COUNT_SQL, Long.class);
@@ -123,7 +129,7 @@ class BookingServiceImplTest {
     void createNewBooking_whenBookerIsItemOwner_thenThrowException() {
         long bookerId = user1.getId();
         Long itemId = item2.getId();
-        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
         BookingCreateDto createDto = new BookingCreateDto(itemId, start, start.plusSeconds(1));
 
         Long rowsBefore = jdbcTemplate.queryForObject(ROWS_COUNT_SQL, Long.class);
@@ -133,6 +139,20 @@ class BookingServiceImplTest {
         assertEquals(rowsAfter, rowsBefore);
     }
 
+    @Test
+    void createNewBooking_whenOverlapsApprovedBooking_thenThrowException() {
+        long bookerId = user3.getId();
+        Long itemId = item1.getId();
+        LocalDateTime start = booking5.getStart().plusMinutes(10);
+        BookingCreateDto createDto = new BookingCreateDto(itemId, start, start.plusMinutes(10));
+
+        Long rowsBefore = jdbcTemplate.queryForObject(ROWS_COUNT_SQL, Long.class);
+        assertThrows(BookingConflictException.class, () -> service.createNewBooking(createDto, bookerId));
+        Long rowsAfter = jdbcTemplate.queryForObject(ROWS_COUNT_SQL, Long.class);
+
+        assertEquals(rowsAfter, rowsBefore);
+    }
+
     @Test
     void getBooking_whenUserIsOwner_thenGet() {
         Long bookingId = booking1.getId();
@@ -168,7 +188,7 @@ class BookingServiceImplTest {
         long ownerId = user1.getId();
         long bookerId = user2.getId();
         Long itemId = item1.getId();
-        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
         BookingCreateDto createDto = new BookingCreateDto(itemId, start, start.plusSeconds(1));
         BookingDto booking = service.createNewBooking(createDto, bookerId);
 
@@ -186,7 +206,7 @@ class BookingServiceImplTest {
         long ownerId = user1.getId();
         long bookerId = user2.getId();
         Long itemId = item1.getId();
-        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
         BookingCreateDto createDto = new BookingCreateDto(itemId, start, start.plusSeconds(1));
         BookingDto booking = service.createNewBooking(createDto, bookerId);
 
@@ -199,11 +219,46 @@ class BookingServiceImplTest {
         assertEquals(Booking.Status.REJECTED, actual.getStatus());
     }
 
+    @Test
+    void approveBooking_whenOverlapsApprovedBooking_thenThrowException() {
+        long ownerId = user1.getId();
+        Long itemId = item1.getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
+        BookingDto first = service.createNewBooking(
+                new BookingCreateDto(itemId, start, start.plusHours(2)), user2.getId());
+        BookingDto second = service.createNewBooking(
+                new BookingCreateDto(itemId, start.plusHours(1), start.plusHours(3)), user3.getId());
+
+        service.approveBooking(first.getId(), ownerId, true);
+        em.flush();
+
+        assertThrows(BookingConflictException.class, () -> service.approveBooking(second.getId(), ownerId, true));
+        Map<String, Object> savedRow = jdbcTemplate.queryForMap("SELECT * FROM bookings WHERE id = ?", second.getId());
+        assertEquals(Booking.Status.WAITING.toString(), savedRow.get("status"));
+    }
+
+    @Test
+    void approveBooking_whenAdjacentToApprovedBooking_thenApproved() {
+        long ownerId = user1.getId();
+        Long itemId = item1.getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
+        BookingDto first = service.createNewBooking(
+                new BookingCreateDto(itemId, start, start.plusHours(1)), user2.getId());
+        BookingDto second = service.createNewBooking(
+                new BookingCreateDto(itemId, start.plusHours(1), start.plusHours(2)), user3.getId());
+
+        service.approveBooking(first.getId(), ownerId, true);
+        em.flush();
+        BookingDto actual = service.approveBooking(second.getId(), ownerId, true);
+
+        assertEquals(Booking.Status.APPROVED, actual.getStatus());
+    }
+
     @Test
     void approveBooking_whenUserIsNotOwner_thenThrowException() {
         long bookerId = user2.getId();
         Long itemId = item1.getId();
-        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime start = LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MILLIS);
         BookingCreateDto createDto = new BookingCreateDto(itemId, start, start.plusSeconds(1));
         BookingDto booking = service.createNewBooking(createDto, bookerId);
 
@@ -214,13 +269,23 @@ class BookingServiceImplTest {
         assertEquals(Booking.Status.WAITING.toString(), savedRow.get("status"));
     }
 
+    @Test
+    void getBookings_whenSizeNotPositive_thenValidationException() {
+        BookingStateFilter state = BookingStateFilter.ALL;
+
+        assertThrows(ValidationException.class,
+                () -> service.getBookerBookings(user2.getId(), state, BookingCursor.FIRST_PAGE, -1));
+        assertThrows(ValidationException.class,
+                () -> service.getOwnerBookings(user1.getId(), state, BookingCursor.FIRST_PAGE, 0));
+    }
+
     @Test
     void getBookerBookings_whenStatePast() {
         BookingStateFilter state = BookingStateFilter.PAST;
         Long bookerId = user2.getId();
         List<BookingDto> expected = bookingMapper.toDto(List.of(booking1));
 
-        List<BookingDto> actual = service.getBookerBookings(bookerId, state);
+        List<BookingDto> actual = service.getBookerBookings(bookerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -230,7 +295,7 @@ class BookingServiceImplTest {
         Long bookerId = user2.getId();
         List<BookingDto> expected = bookingMapper.toDto(List.of(booking2));
 
-        List<BookingDto> actual = service.getBookerBookings(bookerId, state);
+        List<BookingDto> actual = service.getBookerBookings(bookerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -240,7 +305,7 @@ class BookingServiceImplTest {
         Long bookerId = user2.getId();
         List<BookingDto> expected = bookingMapper.toDto(List.of(booking3));
 
-        List<BookingDto> actual = service.getBookerBookings(bookerId, state);
+        List<BookingDto> actual = service.getBookerBookings(bookerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -250,7 +315,7 @@ class BookingServiceImplTest {
         Long bookerId = user2.getId();
         List<BookingDto> expected = bookingMapper.toDto(List.of(booking4));
 
-        List<BookingDto> actual = service.getBookerBookings(bookerId, state);
+        List<BookingDto> actual = service.getBookerBookings(bookerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -260,7 +325,7 @@ class BookingServiceImplTest {
         Long bookerId = user2.getId();
         List<BookingDto> expected = bookingMapper.toDto(List.of(booking5));
 
-        List<BookingDto> actual = service.getBookerBookings(bookerId, state);
+        List<BookingDto> actual = service.getBookerBookings(bookerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -271,7 +336,7 @@ class BookingServiceImplTest {
         List<BookingDto> expected = bookingMapper.toDto(
                 List.of(booking4, booking2, booking1, booking5, booking3));
 
-        List<BookingDto> actual = service.getBookerBookings(bookerId, state);
+        List<BookingDto> actual = service.getBookerBookings(bookerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -281,7 +346,7 @@ class BookingServiceImplTest {
         Long ownerId = user1.getId();
         List<BookingDto> expected = bookingMapper.toDto(List.of(booking1));
 
-        List<BookingDto> actual = service.getOwnerBookings(ownerId, state);
+        List<BookingDto> actual = service.getOwnerBookings(ownerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -291,7 +356,7 @@ class BookingServiceImplTest {
         Long ownerId = user1.getId();
         List<BookingDto> expected = bookingMapper.toDto(List.of(booking2));
 
-        List<BookingDto> actual = service.getOwnerBookings(ownerId, state);
+        List<BookingDto> actual = service.getOwnerBookings(ownerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -301,7 +366,7 @@ class BookingServiceImplTest {
         Long ownerId = user1.getId();
         List<BookingDto> expected = bookingMapper.toDto(List.of(booking3));
 
-        List<BookingDto> actual = service.getOwnerBookings(ownerId, state);
+        List<BookingDto> actual = service.getOwnerBookings(ownerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -311,7 +376,7 @@ class BookingServiceImplTest {
         Long ownerId = user1.getId();
         List<BookingDto> expected = bookingMapper.toDto(List.of(booking4));
 
-        List<BookingDto> actual = service.getOwnerBookings(ownerId, state);
+        List<BookingDto> actual = service.getOwnerBookings(ownerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -321,7 +386,7 @@ class BookingServiceImplTest {
         Long ownerId = user1.getId();
         List<BookingDto> expected = bookingMapper.toDto(List.of(booking5));
 
-        List<BookingDto> actual = service.getOwnerBookings(ownerId, state);
+        List<BookingDto> actual = service.getOwnerBookings(ownerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
@@ -332,7 +397,92 @@ class BookingServiceImplTest {
         List<BookingDto> expected = bookingMapper.toDto(
                 List.of(booking4, booking2, booking1, booking5, booking3));
 
-        List<BookingDto> actual = service.getOwnerBookings(ownerId, state);
+        List<BookingDto> actual = service.getOwnerBookings(ownerId, state, BookingCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookerBookings_pagedByCursor() {
+        Long bookerId = user2.getId();
+        BookingStateFilter state = BookingStateFilter.ALL;
+
+        List<BookingDto> firstPage = service.getBookerBookings(bookerId, state, BookingCursor.FIRST_PAGE, 2);
+        assertEquals(bookingMapper.toDto(List.of(booking4, booking2)), firstPage);
+
+        BookingDto last = firstPage.getLast();
+        List<BookingDto> secondPage = service.getBookerBookings(bookerId, state,
+                BookingCursor.of(last.getStart(), last.getId()), 2);
+        assertEquals(bookingMapper.toDto(List.of(booking1, booking5)), secondPage);
+
+        last = secondPage.getLast();
+        List<BookingDto> thirdPage = service.getBookerBookings(bookerId, state,
+                BookingCursor.of(last.getStart(), last.getId()), 2);
+        assertEquals(bookingMapper.toDto(List.of(booking3)), thirdPage);
+    }
+
+    @Test
+    void getOwnerBookings_whenCursorHasSameStart_thenOrderedById() {
+        Long ownerId = user1.getId();
+        Booking sameStart = Booking.builder()
+                .item(item1)
+                .booker(user3)
+                .start(booking4.getStart())
+                .end(booking4.getEnd())
+                .status(Booking.Status.WAITING)
+                .build();
+        em.persist(sameStart);
+
+        List<BookingDto> actual = service.getOwnerBookings(ownerId, BookingStateFilter.WAITING,
+                BookingCursor.of(sameStart.getStart(), sameStart.getId()), 10);
+        assertEquals(bookingMapper.toDto(List.of(booking4)), actual);
+    }
+
+    @Test
+    void getAvailability() {
+        Item item = Item.builder()
+                .name("availability")
+                .description("availability")
+                .available(Boolean.TRUE)
+                .owner(user1)
+                .build();
+        em.persist(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MILLIS);
+        service.createNewBooking(new BookingCreateDto(item.getId(), start, start.plusHours(2)), user2.getId());
+
+        assertEquals(new AvailabilityDto(item.getId(), start.plusHours(1), start.plusHours(3), false, start.plusHours(2)),
+                service.getAvailability(item.getId(), start.plusHours(1), start.plusHours(3)));
+        assertEquals(new AvailabilityDto(item.getId(), start.plusHours(2), start.plusHours(3), true, start.plusHours(2)),
+                service.getAvailability(item.getId(), start.plusHours(2), start.plusHours(3)));
+    }
+
+    @Test
+    void getAvailability_whenPeriodStartsInPast_thenOnlyRestOfPeriodChecked() {
+        Item item = Item.builder()
+                .name("availability")
+                .description("availability")
+                .available(Boolean.TRUE)
+                .owner(user1)
+                .build();
+        em.persist(item);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        service.createNewBooking(new BookingCreateDto(item.getId(), now.minusHours(1), now.plusHours(1)), user2.getId());
+
+        // период целиком в прошлом свободен, хотя пересекается с текущим бронированием
+        assertEquals(new AvailabilityDto(item.getId(), now.minusHours(2), now.minusMinutes(30), true, now.minusHours(2)),
+                service.getAvailability(item.getId(), now.minusHours(2), now.minusMinutes(30)));
+        assertEquals(new AvailabilityDto(item.getId(), now.minusHours(2), now.plusMinutes(30), false, now.plusHours(1)),
+                service.getAvailability(item.getId(), now.minusHours(2), now.plusMinutes(30)));
+    }
+
+    @Test
+    void getAvailability_whenItemNotFound_thenThrowException() {
+        LocalDateTime start = LocalDateTime.now();
+        assertThrows(NotFoundException.class, () -> service.getAvailability(Long.MAX_VALUE, start, start.plusHours(1)));
+    }
+
+    @Test
+    void getAvailability_whenStartNotBeforeEnd_thenThrowException() {
+        LocalDateTime start = LocalDateTime.now();
+        assertThrows(ValidationException.class, () -> service.getAvailability(item1.getId(), start, start));
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.dto.ItemCommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(TestData.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class CommentRepositoryTest {
+    private final CommentRepository commentRepository;
+    private final TestData testData;
+
+    private Item item1;
+    private Item item2;
+    private User author;
+
+    @PostConstruct
+    private void getTestData() {
+        item1 = testData.getItem1();
+        item2 = testData.getItem2();
+        author = testData.getUser2();
+    }
+
+    @Test
+    void findLatestItemsComments_thenAtMostSizeNewestPerItem() {
+        List<Comment> item1Comments = new ArrayList<>(List.of(testData.getComment1()));
+        for (int i = 0; i < 3; i++) {
+            item1Comments.add(commentRepository.save(comment(item1, "item1 comment " + i)));
+        }
+        Comment item2Comment = commentRepository.save(comment(item2, "item2 comment"));
+        item1Comments.sort(Comparator.comparing(Comment::getCreated).thenComparing(Comment::getId).reversed());
+
+        List<ItemCommentDto> actual = commentRepository.findLatestItemsComments(List.of(item1.getId(), item2.getId()), 2);
+
+        assertEquals(List.of(item1Comments.get(0).getId(), item1Comments.get(1).getId(), item2Comment.getId()),
+                actual.stream().map(ItemCommentDto::id).toList());
+        assertEquals(List.of(item1.getId(), item1.getId(), item2.getId()),
+                actual.stream().map(ItemCommentDto::itemId).toList());
+        assertEquals(author.getName(), actual.getFirst().authorName());
+    }
+
+    private Comment comment(Item item, String text) {
+        return Comment.builder()
+                .item(item)
+                .author(author)
+                .text(text)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.item-search.mode=database")
+@AutoConfigureTestDatabase // отдельная встроенная БД для второго контекста с тестовыми данными
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Transactional
+class DatabaseItemSearchTest {
+    private final ItemSearch itemSearch;
+    private final ItemMapper itemMapper;
+    private final TestData testData;
+
+    private Item item1;
+
+    @PostConstruct
+    private void setTestData() {
+        item1 = testData.getItem1();
+    }
+
+    @Test
+    void searchModeDatabase() {
+        assertInstanceOf(DatabaseItemSearch.class, itemSearch);
+    }
+
+    @Test
+    void search_whenNameOrDescriptionContainsText() {
+        List<ItemDto> expected = List.of(itemMapper.toDto(item1));
+
+        assertEquals(expected, itemSearch.search("iTEM", 0, 10));
+        assertEquals(expected, itemSearch.search("Description", 0, 10));
+    }
+
+    @Test
+    void containsPattern_escapesWildcards() {
+        assertEquals("%50\\%\\_off%", DatabaseItemSearch.containsPattern("50%_OFF"));
+    }
+}
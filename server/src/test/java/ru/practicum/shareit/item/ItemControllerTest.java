@@ -11,9 +11,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.CommentCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -76,6 +78,26 @@ class ItemControllerTest {
         verify(service, times(1)).createNewItem(createDto, userId);
     }
 
+    @SneakyThrows
+    @Test
+    void importItems() {
+        List<ItemDto> createDtos = List.of(new ItemDto(null, "item1", "description1", Boolean.TRUE, null));
+        ItemImportResultDto result = new ItemImportResultDto(1, 1, List.of());
+
+        when(service.importItems(createDtos, userId)).thenReturn(result);
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(objectMapper.writeValueAsString(createDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(1))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors").isEmpty());
+
+        verify(service, times(1)).importItems(createDtos, userId);
+    }
+
     @SneakyThrows
     @Test
     void getItem() {
@@ -100,11 +122,27 @@ class ItemControllerTest {
         verify(service, times(1)).getItem(itemId);
     }
 
+    @SneakyThrows
+    @Test
+    void searchItems_withPage() {
+        String findString = "item1";
+        when(service.searchByText(findString, 20, 5)).thenReturn(List.of());
+
+        mvc.perform(get("/items/search")
+                        .param("text", findString)
+                        .param("from", "20")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+
+        verify(service, times(1)).searchByText(findString, 20, 5);
+    }
+
     @SneakyThrows
     @Test
     void searchItems() {
         String findString = "item1";
-        when(service.searchByText(findString)).thenReturn(List.of(itemDto));
+        when(service.searchByText(findString, 0, 10)).thenReturn(List.of(itemDto));
 
         mvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", userId)
@@ -113,7 +151,24 @@ class ItemControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().json(objectMapper.writeValueAsString(List.of(itemDto))));
 
-        verify(service, times(1)).searchByText(findString);
+        verify(service, times(1)).searchByText(findString, 0, 10);
+    }
+
+    @SneakyThrows
+    @Test
+    void getComments_withCursor() {
+        long itemId = itemDto.getId();
+        CommentCursor cursor = CommentCursor.of(commentDto.getCreated(), 5L);
+        when(service.getItemComments(itemId, cursor, 2)).thenReturn(List.of(commentDto));
+
+        mvc.perform(get("/items/{itemId}/comments", itemId)
+                        .param("afterCreated", commentDto.getCreated().toString())
+                        .param("afterId", "5")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(commentDto))));
+
+        verify(service, times(1)).getItemComments(itemId, cursor, 2);
     }
 
     @SneakyThrows
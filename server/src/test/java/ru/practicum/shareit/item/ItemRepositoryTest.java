@@ -8,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import ru.practicum.shareit.TestData;
 import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -15,6 +16,7 @@ import ru.practicum.shareit.user.model.User;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @Import(TestData.class)
@@ -37,28 +39,52 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    void findByOwner_Id() {
+    void findItemSummariesByOwner_Id() {
         Long ownerId = user1.getId();
-        List<Item> expected = List.of(item1, item2);
+        List<ItemSummaryDto> expected = List.of(
+                new ItemSummaryDto(item1.getId(), item1.getName(), item1.getDescription(), item1.getAvailable(),
+                        1, testData.getComment1().getCreated()),
+                new ItemSummaryDto(item2.getId(), item2.getName(), item2.getDescription(), item2.getAvailable(),
+                        0, null));
 
-        List<Item> actual = itemRepository.findByOwner_Id(ownerId);
+        List<ItemSummaryDto> actual = itemRepository.findItemSummariesByOwner_Id(ownerId);
         assertEquals(expected, actual);
     }
 
     @Test
-    void findItemsByNameContainingIgnoreCaseAndAvailableTrue() {
+    void findAvailableByText_whenNameContainsText() {
         List<Item> expected = List.of(item1);
-        List<Item> actual = itemRepository.findItemsByNameContainingIgnoreCaseAndAvailableTrue("ITem");
+        List<Item> actual = itemRepository.findAvailableByText(DatabaseItemSearch.containsPattern("ITem"), 0, 10);
         assertEquals(expected, actual);
     }
 
     @Test
-    void findItemsByDescriptionContainingIgnoreCaseAndAvailableTrue() {
+    void findAvailableByText_whenDescriptionContainsText() {
         List<Item> expected = List.of(item1);
-        List<Item> actual = itemRepository.findItemsByDescriptionContainingIgnoreCaseAndAvailableTrue("DEScription");
+        List<Item> actual = itemRepository.findAvailableByText(DatabaseItemSearch.containsPattern("DEScription1"), 0, 10);
         assertEquals(expected, actual);
     }
 
+    @Test
+    void findAvailableByText_whenTextContainsWildcard_thenWildcardEscaped() {
+        List<Item> actual = itemRepository.findAvailableByText(DatabaseItemSearch.containsPattern("%"), 0, 10);
+        assertTrue(actual.isEmpty());
+    }
+
+    @Test
+    void findAvailableByText_nameMatchesFirstAndPaged() {
+        Item nameMatch = itemRepository.save(Item.builder()
+                .name("description")
+                .description("text")
+                .owner(user1)
+                .available(Boolean.TRUE)
+                .build());
+        String pattern = DatabaseItemSearch.containsPattern("descr");
+
+        assertEquals(List.of(nameMatch, item1), itemRepository.findAvailableByText(pattern, 0, 10));
+        assertEquals(List.of(item1), itemRepository.findAvailableByText(pattern, 1, 1));
+    }
+
     @Test
     void findItemsByRequest() {
         List<ItemShortDto> expected = List.of(new ItemShortDto(
@@ -70,11 +96,11 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    void findItemsByRequests() {
+    void findItemsByRequestIds() {
         List<ItemShortDto> expected = List.of(new ItemShortDto(
                 item2.getId(), item2.getName(), item2.getOwner().getId(), item2.getItemRequest().getId()));
 
-        List<ItemShortDto> actual = itemRepository.findItemsByRequests(List.of(request1));
+        List<ItemShortDto> actual = itemRepository.findItemsByRequestIds(List.of(request1.getId()));
 
         assertEquals(expected, actual);
     }
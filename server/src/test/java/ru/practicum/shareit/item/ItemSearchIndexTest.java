@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemSearchIndex index = new ItemSearchIndex(itemRepository);
+
+    private final ItemDto drill = new ItemDto(1L, "Дрель", "Аккумуляторная дрель", true, null);
+    private final ItemDto saw = new ItemDto(2L, "Пила", "Циркулярная пила по дереву", true, 5L);
+    private final ItemDto ladder = new ItemDto(3L, "Лестница", "Стремянка", true, null);
+
+    @BeforeEach
+    void fillIndex() {
+        index.put(drill, 10L);
+        index.put(saw, 10L);
+        index.put(ladder, 20L);
+    }
+
+    @Test
+    void search_whenNameContainsText() {
+        assertEquals(List.of(drill), index.search("ДРЕЛ", 0, 10));
+    }
+
+    @Test
+    void search_whenDescriptionContainsText() {
+        assertEquals(List.of(saw), index.search("дерев", 0, 10));
+    }
+
+    @Test
+    void search_whenTextShorterThanGram_thenScanAllEntries() {
+        assertEquals(List.of(drill, saw), index.search("ая", 0, 10));
+    }
+
+    @Test
+    void search_whenAllGramsPresentButNotSubstring_thenNotFound() {
+        index.put(new ItemDto(4L, "abcxbcd", null, true, null), 10L);
+
+        assertTrue(index.search("abcd", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_nameMatchesFirstThenOrderedById() {
+        assertEquals(List.of(saw, ladder, drill), index.search("а", 0, 10));
+    }
+
+    @Test
+    void search_page() {
+        assertEquals(List.of(ladder), index.search("а", 1, 1));
+        assertTrue(index.search("а", 3, 10).isEmpty());
+    }
+
+    @Test
+    void put_whenItemNotAvailable_thenRemovedFromIndex() {
+        index.onItemSaved(new ItemSavedEvent(new ItemDto(1L, "Дрель", "Аккумуляторная дрель", false, null), 10L));
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+    }
+
+    @Test
+    void put_whenItemUpdated_thenOldTextNotFound() {
+        ItemDto updated = new ItemDto(1L, "Перфоратор", "Ударный", true, null);
+        index.onItemSaved(new ItemSavedEvent(updated, 10L));
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(updated), index.search("перфо", 0, 10));
+    }
+
+    @Test
+    void onItemDeleted() {
+        index.onItemDeleted(new ItemDeletedEvent(saw.getId()));
+
+        assertTrue(index.search("пила", 0, 10).isEmpty());
+    }
+
+    @Test
+    void onUserDeleted_thenOwnerItemsRemoved() {
+        index.onUserDeleted(new UserDeletedEvent(10L));
+
+        assertEquals(List.of(ladder), index.search("а", 0, 10));
+    }
+
+    @Test
+    void rebuild() {
+        User owner = User.builder().id(30L).build();
+        Item item = Item.builder()
+                .id(7L)
+                .name("Палатка")
+                .description("Четырёхместная")
+                .available(true)
+                .owner(owner)
+                .build();
+        when(itemRepository.findByAvailableTrue()).thenReturn(List.of(item));
+
+        index.rebuild();
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(new ItemDto(7L, "Палатка", "Четырёхместная", true, null)), index.search("палат", 0, 10));
+    }
+
+    @Test
+    void rebuild_whenItemsChangedDuringRead_thenChangesKept() {
+        User owner = User.builder().id(10L).build();
+        Item staleDrill = Item.builder()
+                .id(drill.getId())
+                .name(drill.getName())
+                .description(drill.getDescription())
+                .available(true)
+                .owner(owner)
+                .build();
+        ItemDto tent = new ItemDto(7L, "Палатка", "Четырёхместная", true, null);
+        // пока читается список из БД, коммитятся удаление дрели и создание палатки
+        when(itemRepository.findByAvailableTrue()).thenAnswer(invocation -> {
+            index.onItemDeleted(new ItemDeletedEvent(drill.getId()));
+            index.onItemSaved(new ItemSavedEvent(tent, 20L));
+            return List.of(staleDrill);
+        });
+
+        index.rebuild();
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(tent), index.search("палат", 0, 10));
+
+        // изменения прошлого перестроения повторно не применяются
+        when(itemRepository.findByAvailableTrue()).thenReturn(List.of());
+        index.rebuild();
+        assertTrue(index.search("палат", 0, 10).isEmpty());
+    }
+}
@@ -7,20 +7,27 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.TestData;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.exception.CommentException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.CommentCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.CommentMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.ItemMapper;
 import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestAnswer;
+import ru.practicum.shareit.request.event.ItemRequestAnsweredEvent;
 import ru.practicum.shareit.user.model.User;
 
 import java.sql.Timestamp;
@@ -31,6 +38,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @Transactional
+@RecordApplicationEvents
 class ItemServiceImplTest {
     private final ItemServiceImpl service;
     private final TestData testData;
@@ -39,6 +47,10 @@ class ItemServiceImplTest {
     private final CommentMapper commentMapper;
     private final ItemMapper itemMapper;
 
+    // записанные события доступны только через внедрение в поле
+    @Autowired
+    private ApplicationEvents events;
+
     private static final String SELECT_COUNT_BY_ID = "SELECT COUNT(*) FROM items WHERE id = ?";
     private static final String SELECT_COUNT_BY_DESCRIPTION = "SELECT COUNT(*) FROM items WHERE description = ?";
 
@@ -48,6 +60,7 @@ class ItemServiceImplTest {
     private Item item2;
     private ItemRequest request1;
     private Comment comment1;
+    private Booking booking1;
     private Booking booking2;
 
     @PostConstruct
@@ -58,6 +71,7 @@ class ItemServiceImplTest {
         item2 = testData.getItem2();
         request1 = testData.getRequest1();
         comment1 = testData.getComment1();
+        booking1 = testData.getBooking1();
         booking2 = testData.getBooking2();
     }
 
@@ -89,6 +103,38 @@ class ItemServiceImplTest {
         assertEquals(request1.getId(), actual.getRequestId());
         assertEquals(request1.getId(), savedRow.get("request_id"));
         assertEquals(actual.getId(), savedRow.get("id"));
+
+        // автор запроса получает ответ через поток событий
+        List<ItemRequestAnswer> answers = events.stream(ItemRequestAnsweredEvent.class)
+                .map(ItemRequestAnsweredEvent::answer)
+                .toList();
+        assertEquals(1, answers.size());
+        assertEquals(request1.getId(), answers.getFirst().requestId());
+        assertEquals(request1.getAuthor().getId(), answers.getFirst().requestAuthorId());
+        assertEquals(actual.getId(), answers.getFirst().item().getId());
+    }
+
+    @Test
+    void importItems_whenRequestNotFound_thenRowSkipped() {
+        String description = "imported_item_description";
+        long missingRequestId = 1000L;
+        List<ItemDto> dtos = List.of(
+                ItemDto.builder().name("imported1").description(description).available(true).build(),
+                ItemDto.builder().name("imported2").description(description).available(true)
+                        .requestId(missingRequestId).build(),
+                ItemDto.builder().name("imported3").description(description).available(false)
+                        .requestId(request1.getId()).build());
+
+        ItemImportResultDto result = service.importItems(dtos, user1.getId());
+        em.flush();
+
+        assertEquals(3, result.received());
+        assertEquals(2, result.created());
+        assertEquals(1, result.errors().size());
+        assertEquals(2, result.errors().getFirst().row());
+        assertEquals(2L, jdbcTemplate.queryForObject(SELECT_COUNT_BY_DESCRIPTION, Long.class, description));
+        assertEquals(request1.getId(), jdbcTemplate.queryForObject(
+                "SELECT request_id FROM items WHERE name = ?", Long.class, "imported3"));
     }
 
     @Test
@@ -229,6 +275,8 @@ class ItemServiceImplTest {
         assertEquals(item1.getAvailable(), actual.getAvailable());
         assertEquals(item1.getOwner().getId(), actual.getId());
         assertEquals(commentMapper.toDto(List.of(comment1)), actual.getComments());
+        assertEquals(1, actual.getCommentCount());
+        assertEquals(comment1.getCreated(), actual.getLastCommentAt());
         assertNull(actual.getLastBooking());
         assertNull(actual.getNextBooking());
     }
@@ -237,8 +285,8 @@ class ItemServiceImplTest {
     void getUserItems() {
         long userId = user1.getId();
         Collection<ItemExtendDto> expected = List.of(
-                itemMapper.toExtendDto(item1, List.of(comment1), null, null),
-                itemMapper.toExtendDto(item2, List.of(), booking2, booking2)
+                itemMapper.toExtendDto(item1, commentMapper.toDto(List.of(comment1)), null, booking1.getStart()),
+                itemMapper.toExtendDto(item2, List.of(), booking2.getStart(), null)
         );
 
         Collection<ItemExtendDto> actual = service.getUserItems(userId);
@@ -250,7 +298,7 @@ class ItemServiceImplTest {
         String textForFind = "item";
         Collection<ItemDto> expected = itemMapper.toDto(Set.of(item1));
 
-        Collection<ItemDto> actual = service.searchByText(textForFind);
+        Collection<ItemDto> actual = service.searchByText(textForFind, 0, 10);
         assertEquals(expected, actual);
     }
 
@@ -259,16 +307,23 @@ class ItemServiceImplTest {
         String textForFind = "description";
         Collection<ItemDto> expected = itemMapper.toDto(Set.of(item1));
 
-        Collection<ItemDto> actual = service.searchByText(textForFind);
+        Collection<ItemDto> actual = service.searchByText(textForFind, 0, 10);
         assertEquals(expected, actual);
     }
 
     @Test
     void searchByText_whenTextIsBlank_thenReturnEmptyCollection() {
-        Collection<ItemDto> actual = service.searchByText("");
+        Collection<ItemDto> actual = service.searchByText("", 0, 10);
         assertTrue(actual.isEmpty());
     }
 
+    @Test
+    void searchByText_whenPageParamsNegative_thenValidationException() {
+        assertThrows(ValidationException.class, () -> service.searchByText("item", -1, 10));
+        assertThrows(ValidationException.class, () -> service.searchByText("item", 0, -5));
+        assertThrows(ValidationException.class, () -> service.searchByText("item", 0, 0));
+    }
+
     @Test
     void deleteItem() {
         Long itemId = item1.getId();
@@ -310,6 +365,42 @@ class ItemServiceImplTest {
         assertEquals(text, savedRow.get("text"));
         assertEquals(text, actual.getText());;
         assertEquals(((Timestamp) savedRow.get("created")).toLocalDateTime(), actual.getCreated());
+
+        em.flush();
+        Map<String, Object> itemRow = jdbcTemplate.queryForMap(
+                "SELECT comment_count, last_comment_at FROM items WHERE id = ?", itemId);
+        assertEquals(2, itemRow.get("comment_count"));
+        assertEquals(actual.getCreated(), ((Timestamp) itemRow.get("last_comment_at")).toLocalDateTime());
+    }
+
+    @Test
+    void getItemComments_whenPagedByCursor_thenNewestFirstWithoutRepeats() {
+        Long itemId = item1.getId();
+        Long userId = user2.getId();
+        service.addComment(new CommentCreateDto("second"), itemId, userId);
+        service.addComment(new CommentCreateDto("third"), itemId, userId);
+
+        List<CommentDto> all = service.getItemComments(itemId, CommentCursor.FIRST_PAGE, 10);
+        List<CommentDto> first = service.getItemComments(itemId, CommentCursor.FIRST_PAGE, 2);
+        CommentDto last = first.getLast();
+        List<CommentDto> second = service.getItemComments(itemId, CommentCursor.of(last.getCreated(), last.getId()), 2);
+
+        assertEquals(3, all.size());
+        assertEquals(List.of("third", "second", comment1.getText()), all.stream().map(CommentDto::getText).toList());
+        assertEquals(all.subList(0, 2), first);
+        assertEquals(all.subList(2, 3), second);
+    }
+
+    @Test
+    void getItemComments_whenSizeNotPositive_thenValidationException() {
+        long itemId = item1.getId();
+
+        assertThrows(ValidationException.class, () -> service.getItemComments(itemId, CommentCursor.FIRST_PAGE, -1));
+    }
+
+    @Test
+    void getItemComments_whenItemNotExist_thenThrowException() {
+        assertThrows(NotFoundException.class, () -> service.getItemComments(1000L, CommentCursor.FIRST_PAGE, 10));
     }
 
     @Test
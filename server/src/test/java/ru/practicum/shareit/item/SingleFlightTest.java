@@ -0,0 +1,136 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void load_whenConcurrent_thenLoadedOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(() -> {
+            loads.incrementAndGet();
+            await(release);
+            return "item";
+        }, release);
+
+        for (Future<String> result : results) {
+            assertEquals("item", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void load_whenLoaderThrows_thenAllCallersGetException() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = runConcurrently(() -> {
+            loads.incrementAndGet();
+            await(release);
+            throw new NotFoundException("Item id = 1 не существует");
+        }, release);
+
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(NotFoundException.class, e.getCause());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void load_whenPreviousCompleted_thenLoadedAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.load(1L, () -> "item " + loads.incrementAndGet());
+        String second = singleFlight.load(1L, () -> "item " + loads.incrementAndGet());
+
+        assertEquals("item 2", second);
+    }
+
+    @Test
+    void load_whenForgottenDuringLoad_thenNextCallerLoadsAgain() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = executor.submit(() -> singleFlight.load(1L, () -> {
+                started.countDown();
+                await(release);
+                return "old item";
+            }));
+            assertTrue(started.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+
+            singleFlight.forget(1L);
+            String fresh = singleFlight.load(1L, () -> "new item");
+            release.countDown();
+
+            assertEquals("new item", fresh);
+            assertEquals("old item", stale.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // все вызовы, кроме первого, присоединяются к загрузке, пока загрузка первого заблокирована на release:
+    // release открывается, когда все потоки ждут - первый в загрузке, остальные результата
+    private List<Future<String>> runConcurrently(Supplier<String> loader,
+                                                 CountDownLatch release) throws InterruptedException {
+        List<Thread> callers = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS, task -> {
+            Thread thread = new Thread(task);
+            callers.add(thread);
+            return thread;
+        });
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.load(1L, loader)));
+            }
+            awaitAllWaiting(callers);
+            release.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitAllWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (threads.size() < CALLERS
+                || !threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            assertTrue(System.nanoTime() < deadline, "вызовы не дошли до ожидания загрузки");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:platform-threads-load"
+})
+class PlatformThreadsLoadTest extends RequestThreadsLoadTest {
+
+    @Override
+    void assertMaxInFlight(int maxInFlight) {
+        assertTrue(maxInFlight <= TOMCAT_THREADS, "обработчиков больше, чем потоков Tomcat: " + maxInFlight);
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Нагрузочное сравнение режимов потоков Tomcat: много одновременных запросов к обработчику,
+ * который, как gateway в ожидании ответа сервера, большую часть времени заблокирован.
+ * Пул платформенных потоков уменьшен до TOMCAT_THREADS, чтобы его предел был виден на небольшой нагрузке.
+ * В лог выводятся максимальное число одновременно обрабатываемых запросов и p99 времени ответа.
+ * Тесты долгие и зависят от времени, в обычную сборку не входят, запуск: mvn -Pload test
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.threads.max=" + RequestThreadsLoadTest.TOMCAT_THREADS,
+                // очередь соединений вмещает всех клиентов, иначе задержку определяют повторные попытки TCP-соединения
+                "server.tomcat.accept-count=" + RequestThreadsLoadTest.CONCURRENT_CLIENTS,
+                "logging.level.org.zalando.logbook=INFO"
+        })
+@Import(RequestThreadsLoadTest.BlockingController.class)
+@Tag("load")
+@Slf4j
+abstract class RequestThreadsLoadTest {
+    static final int TOMCAT_THREADS = 20;
+    static final int CONCURRENT_CLIENTS = 100;
+    private static final int REQUESTS_PER_CLIENT = 2;
+    private static final long BLOCKING_MILLIS = 500;
+
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    private static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+
+    /**
+     * проверка максимального числа одновременно обрабатываемых запросов для режима потоков
+     */
+    abstract void assertMaxInFlight(int maxInFlight);
+
+    @Test
+    void blockingRequests_concurrentClients() throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/load/blocking");
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        double seconds;
+
+        try (HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            // DispatcherServlet инициализируется первым запросом, он не входит в измерение
+            client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+            IN_FLIGHT.set(0);
+            MAX_IN_FLIGHT.set(0);
+
+            long startNanos = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                        long requestNanos = System.nanoTime();
+                        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        latencies.add(System.nanoTime() - requestNanos);
+                        assertEquals(200, response.statusCode());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        }
+
+        List<Long> sorted = latencies.stream().sorted().toList();
+        long p99Millis = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1) / 1_000_000;
+        log.info("{}: {} клиентов, {} запросов за {} с, максимум одновременно обрабатываемых {}, p99 {} мс",
+                getClass().getSimpleName(), CONCURRENT_CLIENTS, sorted.size(), String.format("%.3f", seconds),
+                MAX_IN_FLIGHT.get(), p99Millis);
+
+        assertEquals(CONCURRENT_CLIENTS * REQUESTS_PER_CLIENT, sorted.size());
+        assertMaxInFlight(MAX_IN_FLIGHT.get());
+    }
+
+    @RestController
+    static class BlockingController {
+
+        @GetMapping("/load/blocking")
+        public void blocking() throws InterruptedException {
+            MAX_IN_FLIGHT.accumulateAndGet(IN_FLIGHT.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(BLOCKING_MILLIS);
+            } finally {
+                IN_FLIGHT.decrementAndGet();
+            }
+        }
+    }
+}
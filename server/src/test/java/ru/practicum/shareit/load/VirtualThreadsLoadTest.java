@@ -0,0 +1,18 @@
+package ru.practicum.shareit.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:virtual-threads-load"
+})
+class VirtualThreadsLoadTest extends RequestThreadsLoadTest {
+
+    // число виртуальных потоков не ограничено server.tomcat.threads.max
+    @Override
+    void assertMaxInFlight(int maxInFlight) {
+        assertTrue(maxInFlight > TOMCAT_THREADS, "одновременно обрабатывалось только " + maxInFlight);
+    }
+}
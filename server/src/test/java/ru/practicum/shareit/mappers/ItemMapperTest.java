@@ -2,9 +2,9 @@ package ru.practicum.shareit.mappers;
 
 import org.junit.jupiter.api.Test;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendDto;
-import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -67,7 +67,7 @@ public class ItemMapperTest extends MapperTest {
     @Test
     void toExtendDto() {
         Item item = getItem();
-        List<Comment> comments = List.of(getComment());
+        List<CommentDto> comments = commentMapper.toDto(List.of(getComment()));
         Booking next = getBooking();
         Booking last = new Booking();
         last.setItem(item);
@@ -75,7 +75,7 @@ public class ItemMapperTest extends MapperTest {
         last.setStart(next.getStart().plusSeconds(2));
         last.setEnd(last.getStart().plusSeconds(1));
 
-        ItemExtendDto dto = itemMapper.toExtendDto(item, comments, next, last);
+        ItemExtendDto dto = itemMapper.toExtendDto(item, comments, next.getStart(), last.getStart());
 
         assertEquals(item.getId(), dto.getId());
         assertEquals(item.getName(), dto.getName());
@@ -83,6 +83,8 @@ public class ItemMapperTest extends MapperTest {
         assertEquals(item.getAvailable(), dto.getAvailable());
         assertEquals(comments.size(), dto.getComments().size());
         assertEquals(commentMapper.toDto(getComment()), dto.getComments().getFirst());
+        assertEquals(item.getCommentCount(), dto.getCommentCount());
+        assertEquals(item.getLastCommentAt(), dto.getLastCommentAt());
         assertEquals(next.getStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), dto.getNextBooking());
         assertEquals(last.getStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), dto.getLastBooking());
     }
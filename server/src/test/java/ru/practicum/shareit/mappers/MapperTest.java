@@ -16,7 +16,7 @@ import java.time.LocalDateTime;
 public abstract class MapperTest {
     protected UserMapper userMapper = new UserMapperImpl();
     protected CommentMapper commentMapper = new CommentMapperImpl();
-    protected ItemMapper itemMapper = new ItemMapperImpl(commentMapper);
+    protected ItemMapper itemMapper = new ItemMapperImpl();
     protected BookingMapper bookingMapper = new BookingMapperImpl(itemMapper, userMapper);
     protected ItemRequestMapper itemRequestMapper = new ItemRequestMapperImpl();
 
@@ -0,0 +1,214 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import ru.practicum.shareit.TestEntities;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserSavedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Запись событий в outbox в транзакции изменения и доставка событий других экземпляров
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:outbox")
+@RecordApplicationEvents
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class OutboxTest {
+    private static final String OTHER_ORIGIN = "other-instance";
+    private static final long FAILING_COMMENT_ID = -1L;
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxRecorder outboxRecorder;
+    private final OutboxDispatcher outboxDispatcher;
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final ItemRepository itemRepository;
+    private final FailingListener failingListener;
+
+    // записанные события доступны только через внедрение в поле
+    @Autowired
+    private ApplicationEvents events;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(TestEntities.user().build());
+    }
+
+    @SneakyThrows
+    @Test
+    void createNewItem_thenEventRecordedWithItem() {
+        ItemDto created = itemService.createNewItem(newItem(), owner.getId());
+
+        OutboxEntry entry = outboxRepository.findAll().stream()
+                .filter(e -> e.getType().equals(ItemSavedEvent.class.getName()))
+                .filter(e -> e.getPayload().contains("\"id\":" + created.getId() + ","))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(outboxRecorder.origin(), entry.getOrigin());
+        assertNotNull(entry.getCreated());
+        ItemSavedEvent event = objectMapper.readValue(entry.getPayload(), ItemSavedEvent.class);
+        assertEquals(created, event.item());
+        assertEquals(owner.getId(), event.ownerId());
+    }
+
+    @Test
+    void createNewItem_whenRolledBack_thenNothingRecorded() {
+        long before = outboxRepository.count();
+        ItemDto dto = newItem();
+        dto.setRequestId(1000L);
+
+        assertThrows(NotFoundException.class, () -> itemService.createNewItem(dto, owner.getId()));
+
+        assertEquals(before, outboxRepository.count());
+    }
+
+    @SneakyThrows
+    @Test
+    void dispatch_thenOtherInstanceEventsDeliveredOnce() {
+        ItemDeletedEvent foreign = new ItemDeletedEvent(500L);
+        outboxRepository.save(OutboxEntry.builder()
+                .type(ItemDeletedEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(foreign))
+                .origin(OTHER_ORIGIN)
+                .build());
+        // собственные события уже доставлены после коммита
+        itemService.createNewItem(newItem(), owner.getId());
+        events.clear();
+
+        outboxDispatcher.dispatch();
+        int repeated = outboxDispatcher.dispatch();
+
+        assertEquals(List.of(foreign), events.stream(DomainEvent.class).toList());
+        assertEquals(0, repeated);
+        // доставленное событие не записывается в outbox повторно
+        assertEquals(1, outboxRepository.findAll().stream()
+                .filter(e -> e.getType().equals(ItemDeletedEvent.class.getName()))
+                .count());
+    }
+
+    @SneakyThrows
+    @Test
+    void dispatch_whenItemChangedByOtherInstance_thenCachedItemEvicted() {
+        ItemDto created = itemService.createNewItem(newItem(), owner.getId());
+        itemRepository.findById(created.getId());
+        // изменение на другом экземпляре не проходит через кэш этого экземпляра
+        jdbcTemplate.update("UPDATE items SET available = FALSE WHERE id = ?", created.getId());
+        created.setAvailable(false);
+        outboxRepository.save(OutboxEntry.builder()
+                .type(ItemSavedEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(new ItemSavedEvent(created, owner.getId())))
+                .origin(OTHER_ORIGIN)
+                .build());
+
+        outboxDispatcher.dispatch();
+
+        assertFalse(itemRepository.findById(created.getId()).orElseThrow().getAvailable());
+    }
+
+    @SneakyThrows
+    @Test
+    void dispatch_whenUserChangedByOtherInstance_thenCachedUserEvicted() {
+        userRepository.findById(owner.getId());
+        jdbcTemplate.update("UPDATE users SET name = 'renamed' WHERE id = ?", owner.getId());
+        outboxRepository.save(OutboxEntry.builder()
+                .type(UserSavedEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(new UserSavedEvent(owner.getId())))
+                .origin(OTHER_ORIGIN)
+                .build());
+
+        outboxDispatcher.dispatch();
+
+        assertEquals("renamed", userRepository.findById(owner.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateUser_thenEventRecorded() {
+        userService.updateUser(UserDto.builder().name("new name").build(), owner.getId());
+
+        assertTrue(outboxRepository.findAll().stream()
+                .anyMatch(e -> e.getType().equals(UserSavedEvent.class.getName())
+                        && e.getPayload().equals("{\"userId\":" + owner.getId() + "}")));
+    }
+
+    @SneakyThrows
+    @Test
+    void dispatch_whenListenerFailed_thenRetriedOutsideWindow() {
+        CommentAddedEvent foreign = new CommentAddedEvent(FAILING_COMMENT_ID, 500L, 600L);
+        outboxRepository.save(OutboxEntry.builder()
+                .type(CommentAddedEvent.class.getName())
+                .payload(objectMapper.writeValueAsString(foreign))
+                .origin(OTHER_ORIGIN)
+                .build());
+        failingListener.failures.set(1);
+
+        outboxDispatcher.dispatch();
+        // событие выходит из окна перечитывания
+        jdbcTemplate.update("UPDATE outbox SET created = DATEADD('MINUTE', -10, created) WHERE origin = ?", OTHER_ORIGIN);
+        events.clear();
+        outboxDispatcher.dispatch();
+
+        assertEquals(0, failingListener.failures.get());
+        assertEquals(List.of(foreign), events.stream(CommentAddedEvent.class).toList());
+    }
+
+    private ItemDto newItem() {
+        return ItemDto.builder()
+                .name("item")
+                .description("outbox item")
+                .available(true)
+                .build();
+    }
+
+    @TestConfiguration
+    static class FailingListenerConfig {
+        @Bean
+        FailingListener failingListener() {
+            return new FailingListener();
+        }
+    }
+
+    /**
+     * завершается с ошибкой заданное число раз для комментария FAILING_COMMENT_ID
+     */
+    static class FailingListener {
+        private final AtomicInteger failures = new AtomicInteger();
+
+        @EventListener
+        public void onCommentAdded(CommentAddedEvent event) {
+            if (event.commentId() == FAILING_COMMENT_ID && failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new IllegalStateException("ошибка слушателя");
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponses;
 import ru.practicum.shareit.request.dto.ItemResponse;
@@ -32,6 +33,9 @@ class ItemRequestControllerTest {
     @MockBean
     private ItemRequestServiceImpl service;
 
+    @MockBean
+    private ItemRequestStream stream;
+
     @Autowired
     private MockMvc mvc;
 
@@ -91,14 +95,14 @@ class ItemRequestControllerTest {
     @Test
     void getAllItemRequests() {
         long userId = 3L;
-        when(service.getOtherUsersRequests(userId)).thenReturn(List.of(itemRequestDto));
+        when(service.getOtherUsersRequests(userId, ItemRequestCursor.FIRST_PAGE, 10)).thenReturn(List.of(itemRequestDto));
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
                 .andExpect(content().json(objectMapper.writeValueAsString(List.of(itemRequestDto))));
 
-        verify(service, times(1)).getOtherUsersRequests(userId);
+        verify(service, times(1)).getOtherUsersRequests(userId, ItemRequestCursor.FIRST_PAGE, 10);
     }
 
     @SneakyThrows
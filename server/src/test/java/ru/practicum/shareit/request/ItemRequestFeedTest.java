@@ -0,0 +1,94 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedEntry;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ItemRequestFeedTest {
+    private static final int WINDOW_SIZE = 5;
+    private static final long USER_ID = 1L;
+    private static final long OTHER_USER_ID = 2L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final ItemRequestRepository repository = mock(ItemRequestRepository.class);
+    private final ItemRequestFeed feed = new ItemRequestFeed(repository, WINDOW_SIZE, Duration.ofHours(1));
+
+    @Test
+    void page_whenWindowCoversPage_thenOwnRequestsExcludedAndLoadedOnce() {
+        // запросы 5..1 по убыванию created, чётные - собственные
+        when(repository.findLatest(WINDOW_SIZE)).thenReturn(entries(5));
+
+        Optional<List<ItemRequestDto>> first = feed.page(USER_ID, ItemRequestCursor.FIRST_PAGE, 2);
+        Optional<List<ItemRequestDto>> second = feed.page(USER_ID, cursor(5), 2);
+
+        assertEquals(List.of(5L, 3L), ids(first));
+        assertEquals(List.of(3L, 1L), ids(second));
+        verify(repository, times(1)).findLatest(WINDOW_SIZE);
+    }
+
+    @Test
+    void page_whenWindowEndsBeforePageFilled_thenEmpty() {
+        when(repository.findLatest(WINDOW_SIZE)).thenReturn(entries(5));
+
+        assertTrue(feed.page(USER_ID, cursor(3), 2).isEmpty());
+    }
+
+    @Test
+    void page_whenAllRequestsInWindow_thenShortPage() {
+        when(repository.findLatest(WINDOW_SIZE)).thenReturn(entries(3));
+
+        assertEquals(List.of(1L), ids(feed.page(USER_ID, cursor(3), 2)));
+    }
+
+    @Test
+    void onItemRequestCreated_thenAddedToWindowHead() {
+        when(repository.findLatest(WINDOW_SIZE)).thenReturn(entries(3));
+        feed.page(USER_ID, ItemRequestCursor.FIRST_PAGE, 1);
+
+        feed.onItemRequestCreated(new ItemRequestCreatedEvent(entry(10, OTHER_USER_ID)));
+
+        assertEquals(List.of(10L, 3L), ids(feed.page(USER_ID, ItemRequestCursor.FIRST_PAGE, 2)));
+        verify(repository, times(1)).findLatest(WINDOW_SIZE);
+    }
+
+    @Test
+    void onUserDeleted_thenWindowReloaded() {
+        when(repository.findLatest(WINDOW_SIZE)).thenReturn(entries(3));
+        feed.page(USER_ID, ItemRequestCursor.FIRST_PAGE, 1);
+
+        feed.onUserDeleted(new UserDeletedEvent(OTHER_USER_ID));
+        feed.page(USER_ID, ItemRequestCursor.FIRST_PAGE, 1);
+
+        verify(repository, times(2)).findLatest(WINDOW_SIZE);
+    }
+
+    private static List<ItemRequestFeedEntry> entries(int count) {
+        return LongStream.iterate(count, id -> id >= 1, id -> id - 1)
+                .mapToObj(id -> entry(id, id % 2 == 0 ? USER_ID : OTHER_USER_ID))
+                .toList();
+    }
+
+    private static ItemRequestFeedEntry entry(long id, long authorId) {
+        return new ItemRequestFeedEntry(id, "request " + id, NOW.plusMinutes(id), authorId);
+    }
+
+    private static ItemRequestCursor cursor(long id) {
+        return new ItemRequestCursor(NOW.plusMinutes(id), id);
+    }
+
+    private static List<Long> ids(Optional<List<ItemRequestDto>> page) {
+        return page.orElseThrow().stream().map(ItemRequestDto::getId).toList();
+    }
+}
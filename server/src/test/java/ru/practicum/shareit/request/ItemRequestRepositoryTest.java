@@ -7,6 +7,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestFeedEntry;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -34,20 +37,45 @@ public class ItemRequestRepositoryTest {
     }
 
     @Test
-    void findAllByAuthor_IdNotOrderByCreatedDesc() {
-        List<ItemRequest> expected = List.of(itemRequest2, itemRequest1);
+    void findOtherUsersRequests() {
+        List<ItemRequestDto> expected = List.of(toDto(itemRequest2), toDto(itemRequest1));
 
-        List<ItemRequest> actual = repository.findAllByAuthor_IdNotOrderByCreatedDesc(user1.getId());
+        List<ItemRequestDto> actual = repository.findOtherUsersRequests(user1.getId(),
+                ItemRequestCursor.FIRST_PAGE.created(), ItemRequestCursor.FIRST_PAGE.id(), 10);
 
         assertEquals(expected, actual);
     }
 
     @Test
-    void findAllByAuthorOrderByCreatedDesc() {
-        List<ItemRequest> expected = List.of(itemRequest2, itemRequest1);
+    void findOtherUsersRequests_afterCursor() {
+        List<ItemRequestDto> expected = List.of(toDto(itemRequest1));
 
-        List<ItemRequest> actual = repository.findAllByAuthorOrderByCreatedDesc(user2);
+        List<ItemRequestDto> actual = repository.findOtherUsersRequests(user1.getId(),
+                itemRequest2.getCreated(), itemRequest2.getId(), 10);
 
         assertEquals(expected, actual);
     }
+
+    @Test
+    void findLatest() {
+        List<ItemRequestFeedEntry> expected = List.of(new ItemRequestFeedEntry(
+                itemRequest2.getId(), itemRequest2.getDescription(), itemRequest2.getCreated(), user2.getId()));
+
+        List<ItemRequestFeedEntry> actual = repository.findLatest(1);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void findUserRequests() {
+        List<ItemRequestDto> expected = List.of(toDto(itemRequest2), toDto(itemRequest1));
+
+        List<ItemRequestDto> actual = repository.findUserRequests(user2.getId());
+
+        assertEquals(expected, actual);
+    }
+
+    private static ItemRequestDto toDto(ItemRequest request) {
+        return new ItemRequestDto(request.getId(), request.getDescription(), request.getCreated());
+    }
 }
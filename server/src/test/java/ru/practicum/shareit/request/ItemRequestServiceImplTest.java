@@ -9,7 +9,9 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.TestData;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithResponses;
 import ru.practicum.shareit.request.dto.ItemResponse;
@@ -89,10 +91,20 @@ class ItemRequestServiceImplTest {
         long userId = user1.getId();
         List<ItemRequestDto> expected = mapper.toItemRequestDto(List.of(request2, request1));
 
-        List<ItemRequestDto> actual = service.getOtherUsersRequests(userId);
+        List<ItemRequestDto> actual = service.getOtherUsersRequests(userId, ItemRequestCursor.FIRST_PAGE, 10);
         assertEquals(expected, actual);
     }
 
+    @Test
+    void getOtherUsersRequests_whenSizeNotPositive_thenValidationException() {
+        long userId = user1.getId();
+
+        assertThrows(ValidationException.class,
+                () -> service.getOtherUsersRequests(userId, ItemRequestCursor.FIRST_PAGE, -1));
+        assertThrows(ValidationException.class,
+                () -> service.getOtherUsersRequests(userId, ItemRequestCursor.FIRST_PAGE, 0));
+    }
+
     @Test
     void getRequest() {
         ItemRequestWithResponses expected = new ItemRequestWithResponses(
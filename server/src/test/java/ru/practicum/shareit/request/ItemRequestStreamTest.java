@@ -0,0 +1,124 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.ItemRequestAnswer;
+import ru.practicum.shareit.request.dto.ItemRequestFeedEntry;
+import ru.practicum.shareit.request.dto.ItemResponse;
+import ru.practicum.shareit.request.event.ItemRequestAnsweredEvent;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemRequestStreamTest {
+    // события отправляются в вызывающем потоке
+    private final ItemRequestStream stream = new ItemRequestStream(Runnable::run);
+
+    @Test
+    void onItemRequestCreated_thenRequestEventSentToAllSubscribers() {
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        stream.register(first);
+        stream.register(second);
+        ItemRequestFeedEntry entry = new ItemRequestFeedEntry(1L, "description", LocalDateTime.now(), 2L);
+
+        stream.onItemRequestCreated(new ItemRequestCreatedEvent(entry));
+
+        for (RecordingEmitter emitter : List.of(first, second)) {
+            assertEquals(1, emitter.events.size());
+            assertEventContains(emitter.events.getFirst(), "event:" + ItemRequestStream.REQUEST_EVENT, entry);
+        }
+    }
+
+    @Test
+    void onItemRequestAnswered_thenResponseEventSent() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.register(emitter);
+        ItemRequestAnswer answer = new ItemRequestAnswer(1L, 2L, new ItemResponse(3L, "item", 4L));
+
+        stream.onItemRequestAnswered(new ItemRequestAnsweredEvent(answer));
+
+        assertEquals(1, emitter.events.size());
+        assertEventContains(emitter.events.getFirst(), "event:" + ItemRequestStream.RESPONSE_EVENT, answer);
+    }
+
+    @Test
+    void heartbeat_whenSubscriberDisconnected_thenRemovedAndOthersStillReceive() {
+        RecordingEmitter connected = new RecordingEmitter();
+        RecordingEmitter disconnected = new RecordingEmitter();
+        disconnected.failing = true;
+        stream.register(connected);
+        stream.register(disconnected);
+
+        stream.heartbeat();
+
+        assertEquals(1, connected.events.size());
+        assertEquals(1, stream.subscriberCount());
+    }
+
+    @Test
+    void heartbeat_whenSubscriberStalled_thenCallerAndOthersNotBlocked() throws Exception {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        ItemRequestStream asyncStream = new ItemRequestStream(executor);
+        RecordingEmitter connected = new RecordingEmitter();
+        RecordingEmitter stalled = new RecordingEmitter();
+        stalled.stall = new CountDownLatch(1);
+        asyncStream.register(connected);
+        asyncStream.register(stalled);
+        try {
+            int events = ItemRequestStream.MAX_PENDING + 2;
+            for (int i = 0; i < events; i++) {
+                asyncStream.heartbeat();
+            }
+
+            // подписчик, переполнивший очередь, отключён, остальные получают все события
+            assertEquals(1, asyncStream.subscriberCount());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (connected.events.size() < events && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            assertEquals(events, connected.events.size());
+        } finally {
+            stalled.stall.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void assertEventContains(List<Object> parts, String name, Object data) {
+        assertTrue(parts.stream().anyMatch(part -> part.toString().contains(name)), parts.toString());
+        assertTrue(parts.contains(data), parts.toString());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<List<Object>> events = Collections.synchronizedList(new ArrayList<>());
+        private boolean failing;
+        // отправка ждёт, пока счётчик не обнулится
+        private CountDownLatch stall;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            if (stall != null) {
+                try {
+                    stall.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            events.add(builder.build().stream().map(DataWithMediaType::getData).toList());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class UserExistenceCacheTest {
+    private static final long USER_ID = 1L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserExistenceCache cache = new UserExistenceCache(userRepository, 100, Duration.ofMinutes(10));
+
+    @Test
+    void requireExists_whenExists_thenCheckedOnce() {
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+
+        cache.requireExists(USER_ID);
+        cache.requireExists(USER_ID);
+
+        verify(userRepository, times(1)).existsById(USER_ID);
+    }
+
+    @Test
+    void requireExists_whenNotExists_thenThrowsAndNotCached() {
+        when(userRepository.existsById(USER_ID)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> cache.requireExists(USER_ID));
+        assertThrows(NotFoundException.class, () -> cache.requireExists(USER_ID));
+
+        verify(userRepository, times(2)).existsById(USER_ID);
+    }
+
+    @Test
+    void onUserDeleted_thenExistenceCheckedAgain() {
+        when(userRepository.existsById(USER_ID)).thenReturn(true, false);
+        cache.requireExists(USER_ID);
+
+        cache.onUserDeleted(new UserDeletedEvent(USER_ID));
+
+        assertThrows(NotFoundException.class, () -> cache.requireExists(USER_ID));
+    }
+
+    @Test
+    void requireExists_whenDeletedDuringCheck_thenNotCached() {
+        when(userRepository.existsById(USER_ID)).thenAnswer(invocation -> {
+            // удаление фиксируется и очищает кеш до сохранения результата проверки
+            cache.onUserDeleted(new UserDeletedEvent(USER_ID));
+            return true;
+        }).thenReturn(false);
+        cache.requireExists(USER_ID);
+
+        assertThrows(NotFoundException.class, () -> cache.requireExists(USER_ID));
+    }
+
+    @Test
+    void getReference_whenExists_thenReferenceWithoutLoading() {
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+
+        cache.getReference(USER_ID);
+
+        verify(userRepository).getReferenceById(USER_ID);
+        verify(userRepository, never()).findById(USER_ID);
+    }
+}
@@ -141,4 +141,18 @@ class UserServiceImplTest {
         assertEquals(0,
                 jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Long.class, userId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteUser_whenUserCommented_thenItemCommentCountersRecomputed() {
+        long authorId = testData.getUser2().getId();
+        long itemId = testData.getItem1().getId();
+
+        service.deleteUser(authorId);
+        em.flush();
+
+        Map<String, Object> item = jdbcTemplate.queryForMap(
+                "SELECT comment_count, last_comment_at FROM items WHERE id = ?", itemId);
+        assertEquals(0, ((Number) item.get("comment_count")).intValue());
+        assertNull(item.get("last_comment_at"));
+    }
+}